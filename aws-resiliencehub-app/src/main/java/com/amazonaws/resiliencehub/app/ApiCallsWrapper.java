@@ -4,7 +4,9 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.amazonaws.resiliencehub.common.ExceptionHandlerWrapper;
 import com.google.common.collect.Sets;
@@ -18,8 +20,14 @@ import software.amazon.awssdk.services.resiliencehub.model.DeleteAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DeleteAppResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppsRequest;
@@ -29,6 +37,7 @@ import software.amazon.awssdk.services.resiliencehub.model.PublishAppVersionResp
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateResponse;
 import software.amazon.awssdk.services.resiliencehub.model.RemoveDraftAppVersionResourceMappingsRequest;
+import software.amazon.awssdk.services.resiliencehub.model.RemoveDraftAppVersionResourceMappingsResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateAppResponse;
@@ -47,9 +56,12 @@ public class ApiCallsWrapper {
     private static final String PUT_DRAFT_APP_VERSION_TEMPLATE = "PutDraftAppVersionTemplate";
     private static final String ADD_DRAFT_APP_VERSION_RESOURCE_MAPPINGS = "AddDraftAppVersionResourceMappings";
     private static final String REMOVE_DRAFT_APP_VERSION_RESOURCE_MAPPINGS = "RemoveDraftAppVersionResourceMappings";
+    private static final String IMPORT_RESOURCES_TO_DRAFT_APP_VERSION = "ImportResourcesToDraftAppVersion";
+    private static final String DESCRIBE_DRAFT_APP_VERSION_RESOURCES_IMPORT_STATUS = "DescribeDraftAppVersionResourcesImportStatus";
     private static final String PUBLISH_APP_VERSION = "PublishAppVersion";
     private static final String DESCRIBE_APP_VERSION_TEMPLATE = "DescribeAppVersionTemplate";
     private static final String LIST_APP_VERSION_RESOURCE_MAPPINGS = "ListAppVersionResourceMappings";
+    private static final String DESCRIBE_APP_VERSION = "DescribeAppVersion";
 
     public static CreateAppResponse createApp(
         final CreateAppRequest createAppRequest,
@@ -128,39 +140,55 @@ public class ApiCallsWrapper {
                 proxyClient.client()::addDraftAppVersionResourceMappings));
     }
 
-    public static void addDraftAppVersionResourceMappings(
-        final String appArn,
-        final Set<ResourceMapping> resourceMappings,
+    public static RemoveDraftAppVersionResourceMappingsResponse removeDraftAppVersionResourceMappings(
+        final RemoveDraftAppVersionResourceMappingsRequest removeDraftAppVersionResourceMappingsRequest,
         final ProxyClient<ResiliencehubClient> proxyClient) {
-        Validate.notBlank(appArn);
-        Validate.notNull(resourceMappings);
+        Validate.notNull(removeDraftAppVersionResourceMappingsRequest);
         Validate.notNull(proxyClient);
 
-        if (CollectionUtils.isNotEmpty(resourceMappings)) {
-            final AddDraftAppVersionResourceMappingsRequest request = Translator
-                .translateToAddDraftAppVersionResourceMappingsRequest(appArn, resourceMappings);
+        return ExceptionHandlerWrapper.wrapResilienceHubExceptions(REMOVE_DRAFT_APP_VERSION_RESOURCE_MAPPINGS,
+            () -> proxyClient.injectCredentialsAndInvokeV2(removeDraftAppVersionResourceMappingsRequest,
+                proxyClient.client()::removeDraftAppVersionResourceMappings));
+    }
 
-            addDraftAppVersionResourceMappings(request, proxyClient);
-        }
+    public static ImportResourcesToDraftAppVersionResponse importResourcesToDraftAppVersion(
+        final ImportResourcesToDraftAppVersionRequest importResourcesToDraftAppVersionRequest,
+        final ProxyClient<ResiliencehubClient> proxyClient) {
+        Validate.notNull(importResourcesToDraftAppVersionRequest);
+        Validate.notNull(proxyClient);
+
+        return ExceptionHandlerWrapper.wrapResilienceHubExceptions(IMPORT_RESOURCES_TO_DRAFT_APP_VERSION,
+            () -> proxyClient.injectCredentialsAndInvokeV2(importResourcesToDraftAppVersionRequest,
+                proxyClient.client()::importResourcesToDraftAppVersion));
     }
 
-    public static void removeDraftAppVersionResourceMappings(
+    public static void importResourcesToDraftAppVersion(
         final String appArn,
-        final Set<ResourceMapping> resourceMappings,
+        final List<String> sourceArns,
         final ProxyClient<ResiliencehubClient> proxyClient) {
         Validate.notBlank(appArn);
-        Validate.notNull(resourceMappings);
+        Validate.notNull(sourceArns);
         Validate.notNull(proxyClient);
 
-        if (CollectionUtils.isNotEmpty(resourceMappings)) {
-            final RemoveDraftAppVersionResourceMappingsRequest request = Translator
-                .translateToRemoveDraftAppVersionResourceMappingsRequest(appArn, resourceMappings);
+        if (CollectionUtils.isNotEmpty(sourceArns)) {
+            final ImportResourcesToDraftAppVersionRequest request = Translator
+                .translateToImportResourcesToDraftAppVersionRequest(appArn, sourceArns);
 
-            ExceptionHandlerWrapper.wrapResilienceHubExceptions(REMOVE_DRAFT_APP_VERSION_RESOURCE_MAPPINGS,
-                () -> proxyClient.injectCredentialsAndInvokeV2(request, proxyClient.client()::removeDraftAppVersionResourceMappings));
+            importResourcesToDraftAppVersion(request, proxyClient);
         }
     }
 
+    public static DescribeDraftAppVersionResourcesImportStatusResponse describeDraftAppVersionResourcesImportStatus(
+        final DescribeDraftAppVersionResourcesImportStatusRequest describeDraftAppVersionResourcesImportStatusRequest,
+        final ProxyClient<ResiliencehubClient> proxyClient) {
+        Validate.notNull(describeDraftAppVersionResourcesImportStatusRequest);
+        Validate.notNull(proxyClient);
+
+        return ExceptionHandlerWrapper.wrapResilienceHubExceptions(DESCRIBE_DRAFT_APP_VERSION_RESOURCES_IMPORT_STATUS,
+            () -> proxyClient.injectCredentialsAndInvokeV2(describeDraftAppVersionResourcesImportStatusRequest,
+                proxyClient.client()::describeDraftAppVersionResourcesImportStatus));
+    }
+
     public static PublishAppVersionResponse publishAppVersion(
         final PublishAppVersionRequest publishAppVersionRequest,
         final ProxyClient<ResiliencehubClient> proxyClient) {
@@ -172,6 +200,17 @@ public class ApiCallsWrapper {
                 proxyClient.client()::publishAppVersion));
     }
 
+    public static DescribeAppVersionResponse describeAppVersion(
+        final DescribeAppVersionRequest describeAppVersionRequest,
+        final ProxyClient<ResiliencehubClient> proxyClient) {
+        Validate.notNull(describeAppVersionRequest);
+        Validate.notNull(proxyClient);
+
+        return ExceptionHandlerWrapper.wrapResilienceHubExceptions(DESCRIBE_APP_VERSION,
+            () -> proxyClient.injectCredentialsAndInvokeV2(describeAppVersionRequest,
+                proxyClient.client()::describeAppVersion));
+    }
+
     public static DescribeAppVersionTemplateResponse describeAppVersionTemplate(
         final DescribeAppVersionTemplateRequest describeAppVersionTemplateRequest,
         final ProxyClient<ResiliencehubClient> proxyClient) {
@@ -190,6 +229,43 @@ public class ApiCallsWrapper {
         Validate.notNull(proxyClient);
 
         final Set<ResourceMapping> resourceMappings = Sets.newHashSet();
+        forEachResourceMappingsPage(listAppVersionResourceMappingsRequest, proxyClient, resourceMappings::addAll);
+        return resourceMappings;
+    }
+
+    /**
+     * Reads all resource mappings of an App version into a dictionary-encoded table, page by page.
+     *
+     * @param listAppVersionResourceMappingsRequest request for the first page
+     * @param proxyClient the aws service client to make the call
+     * @param dictionary dictionary shared with the tables the result is compared with
+     * @return table of the distinct resource mappings
+     */
+    static ResourceMappingTable fetchResourceMappingTable(
+        final ListAppVersionResourceMappingsRequest listAppVersionResourceMappingsRequest,
+        final ProxyClient<ResiliencehubClient> proxyClient,
+        final ResourceMappingTable.Dictionary dictionary) {
+        final ResourceMappingTable resourceMappingTable = new ResourceMappingTable(dictionary);
+        forEachResourceMappingsPage(listAppVersionResourceMappingsRequest, proxyClient, resourceMappingTable::addSdkMappings);
+        return resourceMappingTable;
+    }
+
+    /**
+     * Pages through ListAppVersionResourceMappings and hands every page to the consumer as soon as it arrives,
+     * so callers that do not need all mappings at once never hold more than one page.
+     *
+     * @param listAppVersionResourceMappingsRequest request for the first page
+     * @param proxyClient the aws service client to make the call
+     * @param pageConsumer receives the resource mappings of each page
+     */
+    public static void forEachResourceMappingsPage(
+        final ListAppVersionResourceMappingsRequest listAppVersionResourceMappingsRequest,
+        final ProxyClient<ResiliencehubClient> proxyClient,
+        final Consumer<List<ResourceMapping>> pageConsumer) {
+        Validate.notNull(listAppVersionResourceMappingsRequest);
+        Validate.notNull(proxyClient);
+        Validate.notNull(pageConsumer);
+
         final ListAppVersionResourceMappingsRequest.Builder requestBuilder = listAppVersionResourceMappingsRequest
             .toBuilder();
         String nextToken = null;
@@ -200,9 +276,8 @@ public class ApiCallsWrapper {
                     () -> proxyClient.injectCredentialsAndInvokeV2(requestBuilder.build(),
                         proxyClient.client()::listAppVersionResourceMappings));
             nextToken = response.nextToken();
-            resourceMappings.addAll(response.resourceMappings());
+            pageConsumer.accept(response.resourceMappings());
         } while (StringUtils.isNotEmpty(nextToken));
-        return resourceMappings;
     }
 
 }
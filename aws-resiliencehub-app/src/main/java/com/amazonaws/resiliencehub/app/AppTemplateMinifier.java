@@ -0,0 +1,71 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams an App template through a JSON parser and re-emits it without insignificant whitespace.
+ * Tokens are copied one by one, so key order, string contents and number literals are preserved and the
+ * minified template is semantically equal to the original one.
+ */
+final class AppTemplateMinifier {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // prevent instantiation
+    private AppTemplateMinifier() {
+    }
+
+    /**
+     * Minifies an App template body.
+     *
+     * @param appTemplateBody template body as provided in the resource model
+     * @return the minified template, or the original body when it is empty or not valid JSON
+     */
+    static String minify(final String appTemplateBody) {
+        if (StringUtils.isBlank(appTemplateBody)) {
+            return appTemplateBody;
+        }
+
+        final StringWriter writer = new StringWriter(appTemplateBody.length());
+        try (JsonParser parser = JSON_FACTORY.createParser(appTemplateBody);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    // keep the literal as written, e.g. "2.0" must not become "2"
+                    generator.writeNumber(parser.getText());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        } catch (final IOException e) {
+            // The service rejects malformed templates with a proper error message, so send those untouched.
+            return appTemplateBody;
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Number of bytes saved on the wire by sending the minified template instead of the original one.
+     *
+     * @param originalBody template body as provided in the resource model
+     * @param sentBody template body that was sent to the service
+     * @return UTF-8 byte difference between the two bodies
+     */
+    static int bytesSaved(final String originalBody, final String sentBody) {
+        return utf8Length(originalBody) - utf8Length(sentBody);
+    }
+
+    private static int utf8Length(final String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
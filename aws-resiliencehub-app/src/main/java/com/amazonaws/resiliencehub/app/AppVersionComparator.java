@@ -0,0 +1,82 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.amazonaws.resiliencehub.common.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateResponse;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Decides whether publishing the draft would produce a version identical to the current release.
+ * The draft has just been written from the resource model, so the model stands in for the draft here
+ * and only the release version has to be read back.
+ */
+final class AppVersionComparator {
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    // prevent instantiation
+    private AppVersionComparator() {
+    }
+
+    /**
+     * Compares the template digest first and only lists the release mappings when the templates match.
+     *
+     * @param model resource model holding the desired template and resource mappings
+     * @param proxyClient the aws service client to make the call
+     * @return true if the release version already has the desired template and resource mappings
+     */
+    static boolean isReleaseUpToDate(final ResourceModel model, final ProxyClient<ResiliencehubClient> proxyClient) {
+        Validate.notNull(model);
+        Validate.notNull(proxyClient);
+
+        final DescribeAppVersionTemplateResponse releaseTemplate;
+        try {
+            releaseTemplate = ApiCallsWrapper.describeAppVersionTemplate(
+                Translator.translateToDescribeAppVersionTemplateRequest(model), proxyClient);
+        } catch (final CfnNotFoundException e) {
+            // App was never published
+            return false;
+        }
+        if (!templateDigest(model.getAppTemplateBody()).equals(templateDigest(releaseTemplate.appTemplateBody()))) {
+            return false;
+        }
+
+        final ResourceMappingTable.Dictionary dictionary = new ResourceMappingTable.Dictionary();
+        final ResourceMappingTable releaseResourceMappings = ApiCallsWrapper.fetchResourceMappingTable(
+            Translator.translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, model), proxyClient, dictionary);
+        return releaseResourceMappings.sameMappingsAs(ResourceMappingTable.ofCfnMappings(dictionary, model.getResourceMappings()));
+    }
+
+    /**
+     * SHA-256 digest of the canonical form of a template: JSON documents are re-serialized with sorted object keys
+     * and no whitespace, anything else is hashed as is.
+     *
+     * @param appTemplateBody template body
+     * @return hex encoded digest
+     */
+    static String templateDigest(final String appTemplateBody) {
+        return Hashing.sha256()
+            .hashString(appTemplateBody == null ? StringUtils.EMPTY : canonicalize(appTemplateBody), StandardCharsets.UTF_8)
+            .toString();
+    }
+
+    private static String canonicalize(final String appTemplateBody) {
+        try {
+            return CANONICAL_MAPPER.writeValueAsString(CANONICAL_MAPPER.readValue(appTemplateBody, Object.class));
+        } catch (final IOException e) {
+            return appTemplateBody;
+        }
+    }
+}
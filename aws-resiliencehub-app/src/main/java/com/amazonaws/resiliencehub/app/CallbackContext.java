@@ -1,12 +1,36 @@
 package com.amazonaws.resiliencehub.app;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.amazonaws.resiliencehub.common.StagedCallbackContext;
+
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
-public class CallbackContext extends StdCallbackContext {
+public class CallbackContext extends StdCallbackContext implements StagedCallbackContext {
+
+    // see StageEngine
+    private Set<String> completedStages = new LinkedHashSet<>();
+    private int stageRetries;
+
+    // resource mapping chunks already sent, see ResourceMappingWriter
+    private MappingSyncCursor mappingSyncCursor;
+
+    // draft import stabilization, see DraftImportStabilizer
+    private Long importStartMillis;
+    private Long importPollStartMillis;
+    private int importPolls;
+
+    // delete stabilization, see DeleteStabilizer
+    private Long deletePollStartMillis;
+    private int deletePolls;
 
-    private boolean isCreated;
+    // publish stabilization, see PublishStabilizer
+    private String publishedAppVersion;
+    private Long publishPollStartMillis;
+    private int publishPolls;
 }
@@ -0,0 +1,74 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalIdentifierType;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMappingType;
+
+/**
+ * Splits resource mappings into CloudFormation stacks that can be imported with one ImportResourcesToDraftAppVersion
+ * call by their stack Arn, and mappings that have to be added explicitly.
+ * An imported stack is mapped under its stack name, so a CfnStack mapping is only imported when its logical stack name
+ * equals the name in the stack Arn, anything else would read back as a different mapping. Everything else keeps going
+ * through AddDraftAppVersionResourceMappings.
+ */
+final class CfnStackImportPlanner {
+
+    // arn:<partition>:cloudformation:<region>:<account>:stack/<stack name>/<stack id>
+    private static final Pattern STACK_ARN = Pattern.compile("^arn:aws[a-z-]*:cloudformation:[a-z0-9-]+:\\d{12}:stack/([^/]+)/.+$");
+
+    // prevent instantiation
+    private CfnStackImportPlanner() {
+    }
+
+    /**
+     * @param resourceMappings mappings in the resource model
+     * @return stack Arns to import and the remaining mappings to add
+     */
+    static Plan plan(final Collection<ResourceMapping> resourceMappings) {
+        Validate.notNull(resourceMappings);
+
+        final Set<String> sourceArns = new LinkedHashSet<>();
+        final List<ResourceMapping> mappingsToAdd = new ArrayList<>();
+        for (final ResourceMapping resourceMapping : resourceMappings) {
+            final String stackArn = importableStackArn(resourceMapping);
+            if (stackArn != null) {
+                sourceArns.add(stackArn);
+            } else {
+                mappingsToAdd.add(resourceMapping);
+            }
+        }
+        return new Plan(Collections.unmodifiableList(new ArrayList<>(sourceArns)), Collections.unmodifiableList(mappingsToAdd));
+    }
+
+    private static String importableStackArn(final ResourceMapping resourceMapping) {
+        if (resourceMapping.mappingType() != ResourceMappingType.CFN_STACK
+            || resourceMapping.physicalResourceId() == null
+            || resourceMapping.physicalResourceId().type() != PhysicalIdentifierType.ARN) {
+            return null;
+        }
+        final String identifier = resourceMapping.physicalResourceId().identifier();
+        final Matcher matcher = STACK_ARN.matcher(StringUtils.defaultString(identifier));
+        if (!matcher.matches()) {
+            return null;
+        }
+        return matcher.group(1).equals(resourceMapping.logicalStackName()) ? identifier : null;
+    }
+
+    @lombok.Value
+    static class Plan {
+        private final List<String> sourceArns;
+        private final List<ResourceMapping> mappingsToAdd;
+    }
+}
@@ -1,6 +1,19 @@
 package com.amazonaws.resiliencehub.app;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.amazonaws.resiliencehub.common.StageDeferredException;
+import com.amazonaws.resiliencehub.common.StageEngine;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ResiliencehubException;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -9,7 +22,14 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class CreateHandler extends BaseHandlerStd {
 
-    static final int CALLBACK_DELAY_SECONDS = 1;
+    static final String CREATE_APP = "create-app";
+    static final String PUT_TEMPLATE = "put-template";
+    static final String SYNC_MAPPINGS = "sync-mappings";
+    static final String IMPORT_STACKS = "import-stacks";
+    static final String AWAIT_IMPORT = "await-import";
+    static final String PUBLISH = "publish";
+    static final String AWAIT_PUBLISH = "await-publish";
+    static final String READ = "read";
 
     private Logger logger;
 
@@ -17,6 +37,10 @@ public class CreateHandler extends BaseHandlerStd {
         super();
     }
 
+    CreateHandler(final HandlerSettings settings) {
+        super(settings);
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -26,37 +50,61 @@ public class CreateHandler extends BaseHandlerStd {
         final Logger logger) {
 
         this.logger = logger;
+        // malformed models fail here instead of after the first service calls
+        ModelValidator.validate(request.getDesiredResourceState());
 
-        // https://github.com/aws-cloudformation/cloudformation-cli-java-plugin/blob/master/src/main/java/software/amazon/cloudformation/proxy/CallChain.java
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress -> createApp(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> addTemplate(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> addResourceMappings(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> publishVersion(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            // Describe call/chain to return the resource model
-            .then(progress -> new ReadHandler()
-                .handleRequest(proxy, request, callbackContext, proxyClient, logger));
+        final StageEngine.Builder<ResourceModel, CallbackContext> engine = StageEngine
+            .<ResourceModel, CallbackContext>builder(logger)
+            .stage(CREATE_APP, (model, context) -> createApp(proxy, proxyClient, context, model,
+                request.getClientRequestToken()))
+            // give the new app a moment before configuring it
+            .callbackAfter(CREATE_APP, CALLBACK_DELAY_SECONDS)
+            .stage(PUT_TEMPLATE, (model, context) -> addTemplate(proxy, proxyClient, context, model), CREATE_APP)
+            .stage(SYNC_MAPPINGS, (model, context) -> addResourceMappings(proxy, proxyClient, context, model),
+                settings.isOverlapTemplateAndMappings() ? CREATE_APP : PUT_TEMPLATE);
+        final StageEngine.StageAction<ResourceModel, CallbackContext> publish = (model, context) ->
+            publishVersion(proxy, proxyClient, context, model);
+        if (settings.isImportCfnStackMappings()) {
+            // only an import started here needs to settle before publishing
+            engine.stage(IMPORT_STACKS, (model, context) -> importStacks(proxyClient, context, model), PUT_TEMPLATE)
+                .stage(AWAIT_IMPORT, (model, context) -> new DraftImportStabilizer(proxyClient, settings, logger)
+                    .await(context, model), PUT_TEMPLATE, SYNC_MAPPINGS, IMPORT_STACKS)
+                .stage(PUBLISH, publish, AWAIT_IMPORT);
+        } else {
+            engine.stage(PUBLISH, publish, PUT_TEMPLATE, SYNC_MAPPINGS);
+        }
+        return engine
+            .stage(AWAIT_PUBLISH, (model, context) -> new PublishStabilizer(proxyClient, settings, logger)
+                .await(context, model), PUBLISH)
+            // Describe call/chain to return the resource model, pinned to the published version
+            .stage(READ, (model, context) -> new ReadHandler()
+                .handleRequest(proxy, request, context, proxyClient, logger), AWAIT_PUBLISH)
+            .concurrency(settings.isOverlapTemplateAndMappings() ? 2 : 1)
+            .callbackDelaySeconds(CALLBACK_DELAY_SECONDS)
+            .contextMaxBytes(settings.getCallbackContextMaxBytes(), settings.isEnforceCallbackContextMaxBytes())
+            // handlers do not get the Lambda context, so the budget counts from the start of this invocation
+            .inlineContinuation(StageEngine.remainingOf(settings.getInvocationTimeBudget()),
+                settings.getInlineContinuationMinRemaining())
+            .sleeper(settings.getInlineContinuationSleeper())
+            .build()
+            .run(request.getDesiredResourceState(), callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> createApp(
         final AmazonWebServicesClientProxy proxy,
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
-        final ResourceModel model) {
-        logger.log(String.format("isCreatedFlag: %s", callbackContext.isCreated()));
-        if (callbackContext.isCreated()) {
-            logger.log("AWS::ResilienceHub::App was already created, will not call CreateApp again.");
-            return ProgressEvent.progress(model, callbackContext);
-        }
+        final ResourceModel model,
+        final String clientToken) {
+        // the client token makes the service return the app of an earlier attempt instead of conflicting with it
         return proxy.initiate("AWS-ResilienceHub-App::create-app", proxyClient, model, callbackContext)
-            .translateToServiceRequest(Translator::translateToCreateAppRequest)
+            .translateToServiceRequest(resourceModel -> Translator.translateToCreateAppRequest(resourceModel, clientToken))
             .makeServiceCall(ApiCallsWrapper::createApp)
             .done(createAppResponse -> {
                 model.setAppArn(createAppResponse.app().appArn());
-                callbackContext.setCreated(true);
-                logger.log(String.format("Successfully created app [%s] for resourceType %s. Continuing further..", model.getName(),
-                    ResourceModel.TYPE_NAME));
-                return ProgressEvent.defaultInProgressHandler(callbackContext, CALLBACK_DELAY_SECONDS, model);
+                logger.log(String.format("Successfully created app [%s] for resourceType %s. Continuing further..",
+                    model.getName(), ResourceModel.TYPE_NAME));
+                return ProgressEvent.progress(model, callbackContext);
             });
     }
 
@@ -65,14 +113,14 @@ public class CreateHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        return proxy.initiate("AWS-ResilienceHub-App::add-template", proxyClient, model, callbackContext)
-            .translateToServiceRequest(Translator::translateToPutDraftAppVersionTemplateRequest)
-            .makeServiceCall(ApiCallsWrapper::putDraftAppVersionTemplate)
-            .done(putDraftAppVersionTemplateResponse -> {
-                logger.log(String.format("Successfully added template to %s [%s].",
-                    ResourceModel.TYPE_NAME, model.getName()));
-                return ProgressEvent.progress(model, callbackContext);
-            });
+        // the template can be hundreds of KB, so it is sent directly instead of being memoized in the call graph
+        final PutDraftAppVersionTemplateRequest putDraftAppVersionTemplateRequest = Translator
+            .translateToPutDraftAppVersionTemplateRequest(model, settings.isMinifyAppTemplate());
+        ApiCallsWrapper.putDraftAppVersionTemplate(putDraftAppVersionTemplateRequest, proxyClient);
+        logger.log(String.format("Successfully added template to %s [%s], %d bytes saved by minification.",
+            ResourceModel.TYPE_NAME, model.getName(), AppTemplateMinifier.bytesSaved(model.getAppTemplateBody(),
+                putDraftAppVersionTemplateRequest.appTemplateBody())));
+        return ProgressEvent.progress(model, callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> addResourceMappings(
@@ -80,14 +128,58 @@ public class CreateHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        return proxy.initiate("AWS-ResilienceHub-App::add-resource-mappings", proxyClient, model, callbackContext)
-            .translateToServiceRequest(Translator::translateToAddDraftAppVersionResourceMappingsRequest)
-            .makeServiceCall(ApiCallsWrapper::addDraftAppVersionResourceMappings)
-            .done(addDraftAppVersionResourceMappingsResponse -> {
-                logger.log(String.format("Successfully added resource mappings to %s [%s].",
-                    ResourceModel.TYPE_NAME, model.getName()));
-                return ProgressEvent.progress(model, callbackContext);
-            });
+        // a failed chunk ends the stage, the cursor in the callback context lets the retry skip the sent chunks
+        final Collection<ResourceMapping> resourceMappings = settings.isImportCfnStackMappings()
+            ? CfnStackImportPlanner.plan(Translator.toSdkResourceMappings(model.getResourceMappings())).getMappingsToAdd()
+            : Translator.toSdkResourceMappings(model.getResourceMappings());
+        try {
+            new ResourceMappingWriter(proxyClient, settings, callbackContext, logger)
+                .addResourceMappings(model.getAppArn(), resourceMappings);
+        } catch (final CfnInvalidRequestException e) {
+            if (!settings.isOverlapTemplateAndMappings() || !isUnknownStack(e, resourceMappings)) {
+                throw e;
+            }
+            // the stack is only known once the template that is still being uploaded is in the draft
+            throw new StageDeferredException(e, PUT_TEMPLATE);
+        }
+        logger.log(String.format("Successfully added resource mappings to %s [%s].", ResourceModel.TYPE_NAME, model.getName()));
+        return ProgressEvent.progress(model, callbackContext);
+    }
+
+    /**
+     * @return whether AddDraftAppVersionResourceMappings rejected the mappings because the draft does not know one of
+     *     their stacks, which the service reports by naming the stack in its validation message
+     */
+    static boolean isUnknownStack(final CfnInvalidRequestException exception, final Collection<ResourceMapping> resourceMappings) {
+        if (!(exception.getCause() instanceof ResiliencehubException)) {
+            return false;
+        }
+        final AwsErrorDetails errorDetails = ((ResiliencehubException) exception.getCause()).awsErrorDetails();
+        final String errorMessage = errorDetails == null ? null : errorDetails.errorMessage();
+        if (StringUtils.isBlank(errorMessage)) {
+            return false;
+        }
+        return resourceMappings.stream()
+            .map(ResourceMapping::logicalStackName)
+            .filter(StringUtils::isNotBlank)
+            .anyMatch(errorMessage::contains);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> importStacks(
+        final ProxyClient<ResiliencehubClient> proxyClient,
+        final CallbackContext callbackContext,
+        final ResourceModel model) {
+        final List<String> sourceArns = CfnStackImportPlanner
+            .plan(Translator.toSdkResourceMappings(model.getResourceMappings())).getSourceArns();
+        if (sourceArns.isEmpty()) {
+            // nothing to import, so there is no import for the await stage to wait for either
+            return ProgressEvent.progress(model, callbackContext);
+        }
+        callbackContext.setImportStartMillis(System.currentTimeMillis());
+        ApiCallsWrapper.importResourcesToDraftAppVersion(model.getAppArn(), sourceArns, proxyClient);
+        logger.log(String.format("Imported %d CloudFormation stack(s) into %s [%s].", sourceArns.size(),
+            ResourceModel.TYPE_NAME, model.getName()));
+        return ProgressEvent.progress(model, callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> publishVersion(
@@ -99,6 +191,7 @@ public class CreateHandler extends BaseHandlerStd {
             .translateToServiceRequest(Translator::translateToPublishAppVersionRequest)
             .makeServiceCall(ApiCallsWrapper::publishAppVersion)
             .done(publishAppVersionResponse -> {
+                callbackContext.setPublishedAppVersion(publishAppVersionResponse.appVersion());
                 logger.log(String
                     .format("Successfully published version [%s] for app [%s]. This completes the CREATE for resource type %s.",
                         publishAppVersionResponse.appVersion(), model.getName(), ResourceModel.TYPE_NAME));
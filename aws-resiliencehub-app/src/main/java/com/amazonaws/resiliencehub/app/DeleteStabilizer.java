@@ -0,0 +1,106 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+
+import com.amazonaws.resiliencehub.common.JitteredBackoff;
+import com.amazonaws.resiliencehub.common.StageEngine;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.AppStatusType;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Waits for a deleted app to disappear. Every check is a single DescribeApp call: ResourceNotFound means the app is gone,
+ * otherwise the app has to be DELETING. The status can lag behind DeleteApp, so the first deletePollStatusGracePolls
+ * polls may report any status, after that a status other than DELETING means the deletion stopped and fails the
+ * handler. Polls back off exponentially with jitter. Short
+ * waits are spent inside the invocation, a wait longer than deletePollInlineMaxDelay is handed back to CloudFormation as
+ * IN_PROGRESS with a callback delay. The polling state is kept in the callback context to report polls and wait time
+ * across invocations.
+ */
+class DeleteStabilizer {
+
+    private final ProxyClient<ResiliencehubClient> proxyClient;
+    private final JitteredBackoff backoff;
+    private final Duration inlineMaxDelay;
+    private final StageEngine.Sleeper sleeper;
+    private final int statusGracePolls;
+    private final Logger logger;
+
+    DeleteStabilizer(final ProxyClient<ResiliencehubClient> proxyClient, final HandlerSettings settings,
+        final Logger logger) {
+        this.proxyClient = Validate.notNull(proxyClient);
+        this.logger = Validate.notNull(logger);
+        this.inlineMaxDelay = settings.getDeletePollInlineMaxDelay();
+        this.sleeper = settings.getDeletePollSleeper();
+        this.statusGracePolls = settings.getDeletePollStatusGracePolls();
+        this.backoff = JitteredBackoff.builder()
+            .baseDelay(settings.getDeletePollBaseDelay())
+            .maxDelay(settings.getDeletePollMaxDelay())
+            .build();
+    }
+
+    /**
+     * @param callbackContext callback context holding the polling state
+     * @param model resource model of the deleted app
+     * @return progress event that can continue once the app is gone, IN_PROGRESS with the next poll delay, or FAILED
+     * if the app is no longer being deleted
+     */
+    ProgressEvent<ResourceModel, CallbackContext> await(final CallbackContext callbackContext, final ResourceModel model) {
+        if (callbackContext.getDeletePollStartMillis() == null) {
+            callbackContext.setDeletePollStartMillis(System.currentTimeMillis());
+        }
+        while (true) {
+            callbackContext.setDeletePolls(callbackContext.getDeletePolls() + 1);
+            final DescribeAppResponse response;
+            try {
+                response = ApiCallsWrapper.describeApp(Translator.translateToReadAppRequest(model), proxyClient);
+            } catch (final CfnNotFoundException e) {
+                logger.log(String.format("%s [%s] deleted after %d ms and %d poll(s).", ResourceModel.TYPE_NAME,
+                    model.getName(), elapsedMillis(callbackContext), callbackContext.getDeletePolls()));
+                callbackContext.setDeletePollStartMillis(null);
+                callbackContext.setDeletePolls(0);
+                return ProgressEvent.progress(model, callbackContext);
+            }
+
+            if (response.app().status() != AppStatusType.DELETING && callbackContext.getDeletePolls() > statusGracePolls) {
+                logger.log(String.format("%s [%s] is %s after %d ms, the deletion did not complete.", ResourceModel.TYPE_NAME,
+                    model.getName(), response.app().statusAsString(), elapsedMillis(callbackContext)));
+                return ProgressEvent.defaultFailureHandler(
+                    new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getAppArn()), HandlerErrorCode.NotStabilized);
+            }
+
+            final Duration delay = backoff.nextDelay(callbackContext.getDeletePolls());
+            logger.log(String.format("%s [%s] is %s after %d ms, polling again in %d ms.", ResourceModel.TYPE_NAME,
+                model.getName(), response.app().statusAsString(), elapsedMillis(callbackContext), delay.toMillis()));
+            if (delay.compareTo(inlineMaxDelay) > 0) {
+                // callback delays are whole seconds
+                return ProgressEvent.defaultInProgressHandler(callbackContext,
+                    (int) Math.max(1, (delay.toMillis() + 999) / 1000), model);
+            }
+            sleep(delay);
+        }
+    }
+
+    private static long elapsedMillis(final CallbackContext callbackContext) {
+        return Math.max(0, System.currentTimeMillis() - callbackContext.getDeletePollStartMillis());
+    }
+
+    private void sleep(final Duration delay) {
+        try {
+            sleeper.sleep(delay);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+
+import com.amazonaws.resiliencehub.common.AdaptiveBackoff;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceImportStatusType;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Waits for the service to finish the resource import the handler started before the draft is published.
+ * Nothing is polled unless the callback context records the start of an import. Statuses that changed before that
+ * start, less the tolerated clock skew, belong to an earlier import and count as pending. Every check is a single
+ * DescribeDraftAppVersionResourcesImportStatus call. While the import is pending, the stage
+ * returns IN_PROGRESS with a callback delay from an {@link AdaptiveBackoff}, so the handler never spins inside an
+ * invocation. The first poll is recorded in the callback context to measure the time to stable across invocations,
+ * and an import that stays pending for more polls or longer than configured fails the handler.
+ */
+class DraftImportStabilizer {
+
+    private final ProxyClient<ResiliencehubClient> proxyClient;
+    private final HandlerSettings settings;
+    private final AdaptiveBackoff backoff;
+    private final Logger logger;
+
+    DraftImportStabilizer(final ProxyClient<ResiliencehubClient> proxyClient, final HandlerSettings settings,
+        final Logger logger) {
+        this.proxyClient = Validate.notNull(proxyClient);
+        this.settings = Validate.notNull(settings);
+        this.logger = Validate.notNull(logger);
+        this.backoff = AdaptiveBackoff.builder()
+            .minDelay(settings.getImportStatusMinPollDelay())
+            .maxDelay(settings.getImportStatusMaxPollDelay())
+            .build();
+    }
+
+    /**
+     * @param callbackContext callback context holding the polling state
+     * @param model resource model
+     * @return progress event that can continue once the draft is stable, or IN_PROGRESS with the next poll delay
+     * @throws CfnNotStabilizedException if the import failed, or is still pending after the configured polls or time
+     */
+    ProgressEvent<ResourceModel, CallbackContext> await(final CallbackContext callbackContext, final ResourceModel model) {
+        if (callbackContext.getImportStartMillis() == null) {
+            // no import was started, so there is nothing to wait for
+            return ProgressEvent.progress(model, callbackContext);
+        }
+        if (callbackContext.getImportPollStartMillis() == null) {
+            callbackContext.setImportPollStartMillis(System.currentTimeMillis());
+        }
+        callbackContext.setImportPolls(callbackContext.getImportPolls() + 1);
+        final Duration elapsed = Duration.ofMillis(
+            Math.max(0, System.currentTimeMillis() - callbackContext.getImportPollStartMillis()));
+
+        final DescribeDraftAppVersionResourcesImportStatusResponse response;
+        try {
+            response = ApiCallsWrapper.describeDraftAppVersionResourcesImportStatus(
+                Translator.translateToDescribeDraftAppVersionResourcesImportStatusRequest(model), proxyClient);
+        } catch (final CfnNotFoundException e) {
+            // nothing was ever imported into the draft
+            return stable(callbackContext, model, elapsed);
+        }
+        if (isStale(response, callbackContext.getImportStartMillis() - settings.getImportStatusClockSkew().toMillis())) {
+            checkPending(callbackContext, model, elapsed);
+            final int delaySeconds = backoff.nextDelaySeconds(elapsed);
+            logger.log(String.format("Import status of app [%s] still reports an earlier import (%s at %s), polling again in %d s.",
+                model.getName(), response.status(), response.statusChangeTime(), delaySeconds));
+            return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+        }
+        if (response.status() == ResourceImportStatusType.SUCCESS) {
+            return stable(callbackContext, model, elapsed);
+        }
+        if (response.status() == ResourceImportStatusType.FAILED) {
+            logger.log(String.format("Resource import into app [%s] failed after %d ms: %s", model.getName(),
+                elapsed.toMillis(), response.errorMessage()));
+            throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getAppArn());
+        }
+
+        checkPending(callbackContext, model, elapsed);
+        final int delaySeconds = backoff.nextDelaySeconds(elapsed);
+        logger.log(String.format("Resource import into app [%s] is %s after %d ms, polling again in %d s.", model.getName(),
+            response.status(), elapsed.toMillis(), delaySeconds));
+        return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> stable(final CallbackContext callbackContext,
+        final ResourceModel model, final Duration elapsed) {
+        logger.log(String.format("Draft of app [%s] stable after %d ms and %d poll(s).", model.getName(), elapsed.toMillis(),
+            callbackContext.getImportPolls()));
+        callbackContext.setImportStartMillis(null);
+        callbackContext.setImportPollStartMillis(null);
+        callbackContext.setImportPolls(0);
+        return ProgressEvent.progress(model, callbackContext);
+    }
+
+    private void checkPending(final CallbackContext callbackContext, final ResourceModel model, final Duration elapsed) {
+        if (callbackContext.getImportPolls() >= settings.getImportStatusMaxPolls()
+            || elapsed.compareTo(settings.getImportStatusMaxWait()) >= 0) {
+            logger.log(String.format("Resource import into app [%s] still pending after %d ms and %d poll(s), giving up.",
+                model.getName(), elapsed.toMillis(), callbackContext.getImportPolls()));
+            throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getAppArn());
+        }
+    }
+
+    private static boolean isStale(final DescribeDraftAppVersionResourcesImportStatusResponse response,
+        final long earliestStartMillis) {
+        return response.statusChangeTime() != null && response.statusChangeTime().toEpochMilli() < earliestStartMillis;
+    }
+}
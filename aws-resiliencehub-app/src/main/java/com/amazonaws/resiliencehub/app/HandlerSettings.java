@@ -0,0 +1,204 @@
+package com.amazonaws.resiliencehub.app;
+
+import java.time.Duration;
+
+import com.amazonaws.resiliencehub.common.StageEngine;
+
+/**
+ * Tunables shared by the AWS::ResilienceHub::App handlers.
+ * The registry instantiates handlers through their no-arg constructors, so deployed handlers always run with
+ * {@link #DEFAULT}. Tests pass their own settings through the package-private handler constructors.
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+class HandlerSettings {
+
+    static final HandlerSettings DEFAULT = HandlerSettings.builder().build();
+
+    /**
+     * Strip insignificant whitespace from AppTemplateBody before it is sent with PutDraftAppVersionTemplate. Bodies that
+     * are not valid JSON are always sent as written. Off by default, ReadHandler returns the stored body, which would
+     * then no longer match the body of the model.
+     */
+    @lombok.Builder.Default
+    private final boolean minifyAppTemplate = false;
+
+    /**
+     * Diff resource mappings on Update by merging the pages of ListAppVersionResourceMappings against the sorted desired
+     * mappings instead of loading all existing mappings first. Keeps memory flat for apps with very many mappings.
+     * Disabling it falls back to the dictionary-encoded diff of {@link ResourceMappingTable}.
+     */
+    @lombok.Builder.Default
+    private final boolean streamingMappingDiff = true;
+
+    /**
+     * Maximum number of resource mappings sent in one Add or RemoveDraftAppVersionResourceMappings call.
+     */
+    @lombok.Builder.Default
+    private final int mappingChunkSize = 500;
+
+    /**
+     * Maximum estimated payload size of one Add or RemoveDraftAppVersionResourceMappings call.
+     */
+    @lombok.Builder.Default
+    private final int mappingChunkMaxBytes = 1024 * 1024;
+
+    /**
+     * Attempts per resource mapping chunk when it is throttled or fails with an internal error.
+     */
+    @lombok.Builder.Default
+    private final int mappingChunkMaxAttempts = 3;
+
+    /**
+     * Delay before the first retry of a resource mapping chunk, doubled on every further retry.
+     */
+    @lombok.Builder.Default
+    private final Duration mappingChunkRetryDelay = Duration.ofMillis(200);
+
+    /**
+     * Ceiling for the serialized callback context that travels with every progress event, measured after every stage.
+     */
+    @lombok.Builder.Default
+    private final int callbackContextMaxBytes = 32 * 1024;
+
+    /**
+     * Fail the handler when the callback context exceeds callbackContextMaxBytes instead of only logging it.
+     */
+    @lombok.Builder.Default
+    private final boolean enforceCallbackContextMaxBytes = false;
+
+    /**
+     * Time a handler allows itself per invocation. Within it, CreateHandler waits out the callback delay after CreateApp
+     * in process and continues inline, instead of a callback round trip. Zero always requests the callback.
+     */
+    @lombok.Builder.Default
+    private final Duration invocationTimeBudget = Duration.ofSeconds(60);
+
+    /**
+     * Part of the invocation time budget that must be left after the callback delay to continue inline.
+     */
+    @lombok.Builder.Default
+    private final Duration inlineContinuationMinRemaining = Duration.ofSeconds(30);
+
+    /**
+     * Waits out the callback delay when CreateHandler continues inline.
+     */
+    @lombok.Builder.Default
+    private final StageEngine.Sleeper inlineContinuationSleeper = StageEngine.Sleeper.THREAD;
+
+    /**
+     * Add resource mappings on Create while the template upload is still in flight. Mappings the service rejects because
+     * it does not know their stack yet are sent again once the template stage completed. Off by default: while both
+     * stages are in flight they share the callback context and the proxy client, and only the mapping stage writes to
+     * the context. Disabled, the mappings are only added after the template was put.
+     */
+    @lombok.Builder.Default
+    private final boolean overlapTemplateAndMappings = false;
+
+    /**
+     * Import CfnStack mappings that name a stack by its Arn with one ImportResourcesToDraftAppVersion call on Create,
+     * and only send the remaining mappings through AddDraftAppVersionResourceMappings. Off by default, every mapping is
+     * added through AddDraftAppVersionResourceMappings.
+     */
+    @lombok.Builder.Default
+    private final boolean importCfnStackMappings = false;
+
+    /**
+     * Callback delay of the first polls of DescribeDraftAppVersionResourcesImportStatus before publishing. Later polls
+     * wait half the time the import has been processing so far, up to importStatusMaxPollDelay.
+     */
+    @lombok.Builder.Default
+    private final Duration importStatusMinPollDelay = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound for the callback delay between polls of DescribeDraftAppVersionResourcesImportStatus.
+     */
+    @lombok.Builder.Default
+    private final Duration importStatusMaxPollDelay = Duration.ofSeconds(30);
+
+    /**
+     * Clock skew tolerated between this handler and the service. An import status that changed up to this long before
+     * the handler started its import is taken as the status of that import, anything older belongs to an earlier one.
+     */
+    @lombok.Builder.Default
+    private final Duration importStatusClockSkew = Duration.ofSeconds(5);
+
+    /**
+     * Number of DescribeDraftAppVersionResourcesImportStatus polls after which an import that is still pending fails
+     * the handler.
+     */
+    @lombok.Builder.Default
+    private final int importStatusMaxPolls = 120;
+
+    /**
+     * Time after the first DescribeDraftAppVersionResourcesImportStatus poll after which an import that is still pending
+     * fails the handler.
+     */
+    @lombok.Builder.Default
+    private final Duration importStatusMaxWait = Duration.ofMinutes(30);
+
+    /**
+     * Delay after the first DescribeApp poll of a deleted app, doubled with every further poll and jittered.
+     */
+    @lombok.Builder.Default
+    private final Duration deletePollBaseDelay = Duration.ofMillis(500);
+
+    /**
+     * Upper bound for the delay between DescribeApp polls of a deleted app.
+     */
+    @lombok.Builder.Default
+    private final Duration deletePollMaxDelay = Duration.ofSeconds(30);
+
+    /**
+     * Longest delay between DescribeApp polls of a deleted app that is waited inside the invocation. Longer delays are
+     * returned as callback delay of an IN_PROGRESS event.
+     */
+    @lombok.Builder.Default
+    private final Duration deletePollInlineMaxDelay = Duration.ofSeconds(2);
+
+    /**
+     * Waits out the delays between DescribeApp polls of a deleted app that are spent inside the invocation.
+     */
+    @lombok.Builder.Default
+    private final StageEngine.Sleeper deletePollSleeper = StageEngine.Sleeper.THREAD;
+
+    /**
+     * Number of DescribeApp polls of a deleted app that may still report a status other than DELETING, because the
+     * status can lag behind DeleteApp. A later poll with such a status fails the handler.
+     */
+    @lombok.Builder.Default
+    private final int deletePollStatusGracePolls = 3;
+
+    /**
+     * Callback delay of the first DescribeAppVersion polls after PublishAppVersion. Later polls wait half the time the
+     * release has been behind so far, up to publishPollMaxDelay.
+     */
+    @lombok.Builder.Default
+    private final Duration publishPollMinDelay = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound for the callback delay between DescribeAppVersion polls after PublishAppVersion.
+     */
+    @lombok.Builder.Default
+    private final Duration publishPollMaxDelay = Duration.ofSeconds(15);
+
+    /**
+     * Page size requested from ListApps by the List handler. The service accepts at most 100.
+     */
+    @lombok.Builder.Default
+    private final int listPageSize = 100;
+
+    /**
+     * Maximum number of apps the List handler returns per invocation. ListApps pages are read and combined until this
+     * many apps were collected, the service has no further page, or listTimeBudget is used up.
+     */
+    @lombok.Builder.Default
+    private final int listMaxModels = 1000;
+
+    /**
+     * Time after which the List handler stops reading further ListApps pages and returns what it collected so far
+     * together with the continuation token.
+     */
+    @lombok.Builder.Default
+    private final Duration listTimeBudget = Duration.ofSeconds(20);
+}
@@ -1,6 +1,15 @@
 package com.amazonaws.resiliencehub.app;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.ListAppsResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -14,6 +23,10 @@ public class ListHandler extends BaseHandlerStd {
         super();
     }
 
+    ListHandler(final HandlerSettings settings) {
+        super(settings);
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -21,18 +34,34 @@ public class ListHandler extends BaseHandlerStd {
         final CallbackContext callbackContext,
         final ProxyClient<ResiliencehubClient> proxyClient,
         final Logger logger) {
+        Validate.isTrue(settings.getListPageSize() > 0, "listPageSize must be positive");
+        Validate.isTrue(settings.getListMaxModels() > 0, "listMaxModels must be positive");
+
+        // Combine several ListApps pages into one List response, so that CloudFormation needs fewer invocations to walk
+        // all apps. The token of the last page read is handed back as continuation token.
+        final long start = System.nanoTime();
+        final List<ResourceModel> models = new ArrayList<>();
+        String nextToken = request.getNextToken();
+        int pages = 0;
+        do {
+            final int maxResults = Math.min(settings.getListPageSize(), settings.getListMaxModels() - models.size());
+            final ListAppsResponse listAppsResponse = ApiCallsWrapper.listApps(
+                Translator.translateToListAppRequest(request.getDesiredResourceState(), nextToken,
+                    maxResults), proxyClient);
+            models.addAll(Translator.translateFromListResponse(listAppsResponse));
+            nextToken = listAppsResponse.nextToken();
+            pages++;
+        } while (StringUtils.isNotEmpty(nextToken)
+            && models.size() < settings.getListMaxModels()
+            && Duration.ofNanos(System.nanoTime() - start).compareTo(settings.getListTimeBudget()) < 0);
 
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress ->
-                proxy.initiate("AWS-ResilienceHub-App::list-apps", proxyClient, progress.getResourceModel(),
-                    progress.getCallbackContext())
-                    .translateToServiceRequest(
-                        model -> Translator.translateToListAppRequest(request.getNextToken()))
-                    .makeServiceCall(ApiCallsWrapper::listApps)
-                    .done(listAppsResponse -> ProgressEvent.<ResourceModel, CallbackContext>builder()
-                        .resourceModels(Translator.translateFromListResponse(listAppsResponse))
-                        .status(OperationStatus.SUCCESS)
-                        .nextToken(listAppsResponse.nextToken())
-                        .build()));
+        logger.log(String.format("Listed %d app(s) from %d page(s) in %d ms, %s.", models.size(), pages,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            StringUtils.isEmpty(nextToken) ? "no more pages" : "more pages remaining"));
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .resourceModels(models)
+            .status(OperationStatus.SUCCESS)
+            .nextToken(nextToken)
+            .build();
     }
 }
@@ -0,0 +1,33 @@
+package com.amazonaws.resiliencehub.app;
+
+/**
+ * Progress of a chunked resource mapping sync, kept in the {@link CallbackContext} so that a re-invocation resumes
+ * from the first unacknowledged chunk. Chunks are sent in order, so the cursor stays the same size however many
+ * mappings are synced.
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+public class MappingSyncCursor {
+
+    /**
+     * Digest of the operation and of every planned chunk, a cursor only applies to the exact same plan.
+     */
+    private String digest;
+
+    /**
+     * Every chunk before this index has been acknowledged.
+     */
+    private int nextChunk;
+
+    MappingSyncCursor(final String digest) {
+        this.digest = digest;
+    }
+
+    boolean isAcknowledged(final int chunk) {
+        return chunk < nextChunk;
+    }
+
+    void acknowledge(final int chunk) {
+        nextChunk = Math.max(nextChunk, chunk + 1);
+    }
+}
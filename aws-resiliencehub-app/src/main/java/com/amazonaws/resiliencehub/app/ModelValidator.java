@@ -0,0 +1,145 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+/**
+ * Checks a desired App model before the first ResilienceHub call, so that malformed models fail within milliseconds
+ * instead of halfway through the stage chain. The checks mirror the resource schema and the assumptions of
+ * {@link Translator}; everything else is left to the service.
+ */
+final class ModelValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // patterns of the resource schema
+    private static final Pattern NAME = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9_\\-]{1,59}$");
+    private static final Pattern AWS_ACCOUNT_ID = Pattern.compile("^[0-9]{12}$");
+    private static final Pattern AWS_REGION = Pattern.compile("^[a-z]{2}-((iso[a-z]{0,1}-)|(gov-)){0,1}[a-z]+-[0-9]$");
+    private static final Pattern MAPPING_TYPE = Pattern.compile("^(CfnStack|Resource|Terraform|EKS)$");
+    private static final Pattern PHYSICAL_IDENTIFIER_TYPE = Pattern.compile("^(Arn|Native)$");
+    private static final int MAX_IDENTIFIER_LENGTH = 255;
+
+    // prevent instantiation
+    private ModelValidator() {
+    }
+
+    /**
+     * @param model desired resource model of a Create or Update request
+     * @throws CfnInvalidRequestException naming the first invalid property
+     */
+    static void validate(final ResourceModel model) {
+        if (model == null) {
+            throw new CfnInvalidRequestException("Resource model is required.");
+        }
+        if (model.getName() != null && !NAME.matcher(model.getName()).matches()) {
+            throw invalid("Name [%s] does not match %s.", model.getName(), NAME.pattern());
+        }
+        validateTemplate(model.getAppTemplateBody());
+        validateResourceMappings(model.getResourceMappings());
+    }
+
+    private static void validateTemplate(final String appTemplateBody) {
+        if (StringUtils.isEmpty(appTemplateBody)) {
+            return;
+        }
+        // tokens are only read, never materialized, so large templates are checked without building a tree
+        try (JsonParser parser = JSON_FACTORY.createParser(appTemplateBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalid("AppTemplateBody must be a JSON object.");
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                throw invalid("AppTemplateBody has content after the JSON object.");
+            }
+        } catch (final IOException e) {
+            throw invalid("AppTemplateBody is not valid JSON: %s", e.getOriginalMessage());
+        }
+    }
+
+    private static void validateResourceMappings(final List<ResourceMapping> resourceMappings) {
+        if (resourceMappings == null) {
+            return;
+        }
+        final Set<String> logicalNames = new HashSet<>(resourceMappings.size() * 4 / 3 + 1);
+        for (final ResourceMapping resourceMapping : resourceMappings) {
+            if (resourceMapping == null) {
+                throw invalid("ResourceMappings must not contain null entries.");
+            }
+            final String mappingType = resourceMapping.getMappingType();
+            if (mappingType == null || !MAPPING_TYPE.matcher(mappingType).matches()) {
+                throw invalid("MappingType [%s] is not one of CfnStack, Resource, Terraform or EKS.", mappingType);
+            }
+            validatePhysicalResourceId(resourceMapping.getPhysicalResourceId());
+
+            final String logicalName = logicalNameOf(resourceMapping);
+            if (logicalName == null) {
+                // unnamed stacks are identified by their physical id
+                continue;
+            }
+            if (!logicalNames.add(mappingType + '/' + logicalName)) {
+                throw invalid("Duplicate %s resource mapping [%s].", mappingType, logicalName);
+            }
+        }
+    }
+
+    private static void validatePhysicalResourceId(final PhysicalResourceId physicalResourceId) {
+        if (physicalResourceId == null) {
+            throw invalid("PhysicalResourceId is required.");
+        }
+        final String type = physicalResourceId.getType();
+        if (type == null || !PHYSICAL_IDENTIFIER_TYPE.matcher(type).matches()) {
+            throw invalid("PhysicalResourceId Type [%s] is not one of Arn or Native.", type);
+        }
+        final String identifier = physicalResourceId.getIdentifier();
+        if (StringUtils.isEmpty(identifier) || identifier.length() > MAX_IDENTIFIER_LENGTH) {
+            throw invalid("PhysicalResourceId Identifier must have between 1 and %d characters.", MAX_IDENTIFIER_LENGTH);
+        }
+        if (physicalResourceId.getAwsAccountId() != null
+            && !AWS_ACCOUNT_ID.matcher(physicalResourceId.getAwsAccountId()).matches()) {
+            throw invalid("PhysicalResourceId AwsAccountId [%s] is not a 12 digit account id.",
+                physicalResourceId.getAwsAccountId());
+        }
+        if (physicalResourceId.getAwsRegion() != null && !AWS_REGION.matcher(physicalResourceId.getAwsRegion()).matches()) {
+            throw invalid("PhysicalResourceId AwsRegion [%s] is not a region name.", physicalResourceId.getAwsRegion());
+        }
+    }
+
+    private static String logicalNameOf(final ResourceMapping resourceMapping) {
+        switch (resourceMapping.getMappingType()) {
+            case "CfnStack":
+                return resourceMapping.getLogicalStackName();
+            case "Resource":
+                if (resourceMapping.getResourceName() == null || !NAME.matcher(resourceMapping.getResourceName()).matches()) {
+                    throw invalid("ResourceName [%s] does not match %s.", resourceMapping.getResourceName(), NAME.pattern());
+                }
+                return resourceMapping.getResourceName();
+            case "Terraform":
+                return requireSourceName("TerraformSourceName", resourceMapping.getTerraformSourceName());
+            default:
+                return requireSourceName("EksSourceName", resourceMapping.getEksSourceName());
+        }
+    }
+
+    private static String requireSourceName(final String property, final String sourceName) {
+        if (StringUtils.isBlank(sourceName)) {
+            throw invalid("%s is required for this MappingType.", property);
+        }
+        return sourceName;
+    }
+
+    private static CfnInvalidRequestException invalid(final String format, final Object... args) {
+        return new CfnInvalidRequestException(String.format(format, args));
+    }
+}
@@ -0,0 +1,71 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+
+import com.amazonaws.resiliencehub.common.AdaptiveBackoff;
+import com.amazonaws.resiliencehub.common.Constants;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Waits until DescribeAppVersion resolves the release alias to the version returned by PublishAppVersion, so that the
+ * Read at the end of Create and Update, which is pinned to that version, never sees a stale or missing release. While
+ * the release is behind, the stage returns IN_PROGRESS with a callback delay from an {@link AdaptiveBackoff}.
+ * Nothing is awaited when no version was published, or when the service only returned the release alias.
+ */
+class PublishStabilizer {
+
+    private final ProxyClient<ResiliencehubClient> proxyClient;
+    private final AdaptiveBackoff backoff;
+    private final Logger logger;
+
+    PublishStabilizer(final ProxyClient<ResiliencehubClient> proxyClient, final HandlerSettings settings,
+        final Logger logger) {
+        this.proxyClient = Validate.notNull(proxyClient);
+        this.logger = Validate.notNull(logger);
+        this.backoff = AdaptiveBackoff.builder()
+            .minDelay(settings.getPublishPollMinDelay())
+            .maxDelay(settings.getPublishPollMaxDelay())
+            .build();
+    }
+
+    /**
+     * @param callbackContext callback context holding the published version and the polling state
+     * @param model resource model
+     * @return progress event that can continue once the release is the published version, or IN_PROGRESS with the next
+     *     poll delay
+     */
+    ProgressEvent<ResourceModel, CallbackContext> await(final CallbackContext callbackContext, final ResourceModel model) {
+        final String publishedAppVersion = callbackContext.getPublishedAppVersion();
+        if (StringUtils.isEmpty(publishedAppVersion) || Constants.RELEASE_VERSION.equals(publishedAppVersion)) {
+            return ProgressEvent.progress(model, callbackContext);
+        }
+        if (callbackContext.getPublishPollStartMillis() == null) {
+            callbackContext.setPublishPollStartMillis(System.currentTimeMillis());
+        }
+        callbackContext.setPublishPolls(callbackContext.getPublishPolls() + 1);
+        final Duration elapsed = Duration.ofMillis(
+            Math.max(0, System.currentTimeMillis() - callbackContext.getPublishPollStartMillis()));
+
+        final String releaseAppVersion = ApiCallsWrapper.describeAppVersion(
+            Translator.translateToDescribeReleaseAppVersionRequest(model), proxyClient).appVersion();
+        if (publishedAppVersion.equals(releaseAppVersion)) {
+            logger.log(String.format("Release of app [%s] is version [%s] after %d ms and %d poll(s).", model.getName(),
+                publishedAppVersion, elapsed.toMillis(), callbackContext.getPublishPolls()));
+            callbackContext.setPublishPollStartMillis(null);
+            callbackContext.setPublishPolls(0);
+            return ProgressEvent.progress(model, callbackContext);
+        }
+
+        final int delaySeconds = backoff.nextDelaySeconds(elapsed);
+        logger.log(String.format("Release of app [%s] is version [%s] rather than [%s] after %d ms, polling again in %d s.",
+            model.getName(), releaseAppVersion, publishedAppVersion, elapsed.toMillis(), delaySeconds));
+        return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+    }
+}
@@ -1,9 +1,12 @@
 package com.amazonaws.resiliencehub.app;
 
+import org.apache.commons.lang3.StringUtils;
+
 import com.amazonaws.resiliencehub.common.Constants;
 import com.amazonaws.resiliencehub.common.TaggingUtil;
 
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -74,15 +77,14 @@ public class ReadHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        return proxy.initiate("AWS-ResilienceHub-App::describe-app-template", proxyClient, model, callbackContext)
-            .translateToServiceRequest(Translator::translateToDescribeAppVersionTemplateRequest)
-            .makeServiceCall(ApiCallsWrapper::describeAppVersionTemplate)
-            .done(describeAppVersionTemplateResponse -> {
-                model.setAppTemplateBody(describeAppVersionTemplateResponse.appTemplateBody());
-                logger.log(String.format("App template for %s [%s] has been successfully read.",
-                    ResourceModel.TYPE_NAME, model.getName()));
-                return ProgressEvent.progress(model, callbackContext);
-            });
+        // template and mappings are read directly, memoizing them would put them into the callback context
+        final DescribeAppVersionTemplateResponse describeAppVersionTemplateResponse = ApiCallsWrapper
+            .describeAppVersionTemplate(Translator.translateToDescribeAppVersionTemplateRequest(appVersion(callbackContext),
+                model), proxyClient);
+        model.setAppTemplateBody(describeAppVersionTemplateResponse.appTemplateBody());
+        logger.log(String.format("App template for %s [%s] has been successfully read.",
+            ResourceModel.TYPE_NAME, model.getName()));
+        return ProgressEvent.progress(model, callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> listAppResourceMappings(
@@ -90,16 +92,18 @@ public class ReadHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        return proxy.initiate("AWS-ResilienceHub-App::list-resource-mappings", proxyClient, model, callbackContext)
-            .translateToServiceRequest(
-                resourceModel -> Translator.translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, resourceModel))
-            .makeServiceCall(ApiCallsWrapper::fetchAllResourceMappings)
-            .done(resourceMappings -> {
-                model.setResourceMappings(Translator.toCfnResourceMappings(resourceMappings));
-                logger.log(String
-                    .format("Resource mappings for app [%s] has been successfully read. This completes the READ for resource type %s.",
-                        model.getName(), ResourceModel.TYPE_NAME));
-                return ProgressEvent.progress(model, callbackContext);
-            });
+        final ResourceMappingTable resourceMappings = ApiCallsWrapper.fetchResourceMappingTable(
+            Translator.translateToListAppVersionResourceMappingsRequest(appVersion(callbackContext), model), proxyClient,
+            new ResourceMappingTable.Dictionary());
+        model.setResourceMappings(resourceMappings.toCfnResourceMappings());
+        logger.log(String
+            .format("Resource mappings for app [%s] has been successfully read. This completes the READ for resource type %s.",
+                model.getName(), ResourceModel.TYPE_NAME));
+        return ProgressEvent.progress(model, callbackContext);
+    }
+
+    // after Create and Update, the version they published, so the read never sees an older release
+    private static String appVersion(final CallbackContext callbackContext) {
+        return StringUtils.defaultIfEmpty(callbackContext.getPublishedAppVersion(), Constants.RELEASE_VERSION);
     }
 }
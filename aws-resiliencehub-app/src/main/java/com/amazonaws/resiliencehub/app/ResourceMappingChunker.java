@@ -0,0 +1,82 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalResourceId;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+/**
+ * Splits resource mappings into chunks bounded both by mapping count and by estimated request payload size.
+ */
+final class ResourceMappingChunker {
+
+    // JSON field names, quotes and separators of a serialized mapping, on top of the field values
+    private static final int MAPPING_OVERHEAD_BYTES = 200;
+
+    // prevent instantiation
+    private ResourceMappingChunker() {
+    }
+
+    /**
+     * Splits the mappings in iteration order. A single mapping larger than maxBytes still gets a chunk of its own.
+     *
+     * @param resourceMappings mappings to split
+     * @param maxCount maximum number of mappings per chunk
+     * @param maxBytes maximum estimated payload size of a chunk
+     * @return chunks in iteration order of the mappings
+     */
+    static List<List<ResourceMapping>> chunk(final Collection<ResourceMapping> resourceMappings, final int maxCount,
+        final int maxBytes) {
+        Validate.notNull(resourceMappings);
+        Validate.isTrue(maxCount > 0, "maxCount must be positive");
+        Validate.isTrue(maxBytes > 0, "maxBytes must be positive");
+
+        final List<List<ResourceMapping>> chunks = new ArrayList<>();
+        List<ResourceMapping> chunk = new ArrayList<>();
+        int chunkBytes = 0;
+        for (final ResourceMapping resourceMapping : resourceMappings) {
+            final int mappingBytes = estimatedSize(resourceMapping);
+            if (!chunk.isEmpty() && (chunk.size() >= maxCount || chunkBytes + mappingBytes > maxBytes)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(resourceMapping);
+            chunkBytes += mappingBytes;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * @param resourceMapping mapping
+     * @return estimated size of the mapping once serialized into a request
+     */
+    static int estimatedSize(final ResourceMapping resourceMapping) {
+        int size = MAPPING_OVERHEAD_BYTES
+            + utf8Length(resourceMapping.mappingTypeAsString())
+            + utf8Length(resourceMapping.logicalStackName())
+            + utf8Length(resourceMapping.resourceName())
+            + utf8Length(resourceMapping.terraformSourceName())
+            + utf8Length(resourceMapping.eksSourceName());
+        final PhysicalResourceId physicalResourceId = resourceMapping.physicalResourceId();
+        if (physicalResourceId != null) {
+            size += utf8Length(physicalResourceId.identifier())
+                + utf8Length(physicalResourceId.typeAsString())
+                + utf8Length(physicalResourceId.awsAccountId())
+                + utf8Length(physicalResourceId.awsRegion());
+        }
+        return size;
+    }
+
+    private static int utf8Length(final String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,322 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+/**
+ * Plans the resource mapping changes needed to turn the existing draft mappings into the desired ones.
+ * Mappings are matched on their logical identity (mapping type plus stack, resource, Terraform or EKS source name)
+ * rather than on deep SDK equality, so a mapping whose physical resource id changed is sent once as an add instead of
+ * a remove followed by an add. AddDraftAppVersionResourceMappings replaces mappings with the same name.
+ */
+final class ResourceMappingDeltaPlanner {
+
+    // prevent instantiation
+    private ResourceMappingDeltaPlanner() {
+    }
+
+    /**
+     * Classifies every mapping as unchanged, added, removed or modified.
+     *
+     * @param existingResourceMappings mappings currently in the draft version
+     * @param desiredResourceMappings mappings in the resource model
+     * @return the planned delta
+     */
+    static Delta plan(final Collection<ResourceMapping> existingResourceMappings,
+        final Collection<ResourceMapping> desiredResourceMappings) {
+        Validate.notNull(existingResourceMappings);
+        Validate.notNull(desiredResourceMappings);
+
+        final ResourceMappingTable.Dictionary dictionary = new ResourceMappingTable.Dictionary();
+        return plan(ResourceMappingTable.ofSdkMappings(dictionary, existingResourceMappings),
+            ResourceMappingTable.ofSdkMappings(dictionary, desiredResourceMappings));
+    }
+
+    /**
+     * Classifies every mapping as unchanged, added, removed or modified. Identities and contents are compared on the
+     * dictionary codes of both tables, only the mappings that have to be sent are converted to SDK objects.
+     *
+     * @param existing mappings currently in the draft version
+     * @param desired mappings in the resource model, sharing the dictionary of existing
+     * @return the planned delta
+     */
+    static Delta plan(final ResourceMappingTable existing, final ResourceMappingTable desired) {
+        Validate.notNull(existing);
+        Validate.notNull(desired);
+        existing.requireSameDictionary(desired);
+
+        final BitSet matched = new BitSet(existing.size());
+        final BitSet added = new BitSet(desired.size());
+        final BitSet modified = new BitSet(desired.size());
+        int unchanged = 0;
+        for (int row = 0; row < desired.size(); row++) {
+            final int existingRow = existing.rowOfKey(desired.keyOf(row));
+            if (existingRow < 0 || matched.get(existingRow)) {
+                added.set(row);
+                continue;
+            }
+            matched.set(existingRow);
+            if (existing.sameRow(existingRow, desired, row)) {
+                unchanged++;
+            } else {
+                modified.set(row);
+            }
+        }
+
+        final BitSet removed = new BitSet(existing.size());
+        for (int row = 0; row < existing.size(); row++) {
+            // of several existing mappings with one identity only the last one is considered, as in a map
+            if (!matched.get(row) && existing.rowOfKey(existing.keyOf(row)) == row) {
+                removed.set(row);
+            }
+        }
+        return new Delta(Collections.unmodifiableSet(desired.toSdkResourceMappings(added)),
+            Collections.unmodifiableSet(desired.toSdkResourceMappings(modified)),
+            Collections.unmodifiableSet(existing.toSdkResourceMappings(removed)), unchanged);
+    }
+
+    /**
+     * Starts a streaming plan: the desired mappings are sorted once by logical identity and the existing mappings are
+     * merged against them page by page, so existing mappings are never held in memory beyond the current page
+     * unless they have to be removed.
+     *
+     * @param desiredResourceMappings mappings in the resource model
+     * @return planner accepting pages of existing mappings
+     */
+    static StreamingPlanner streaming(final Collection<ResourceMapping> desiredResourceMappings) {
+        Validate.notNull(desiredResourceMappings);
+        return new StreamingPlanner(desiredResourceMappings);
+    }
+
+    /**
+     * Sorted-merge diff of existing pages against the sorted desired mappings. Desired mappings that were matched or
+     * modified are tracked in bit sets, the only per-existing-mapping state kept is the set of mappings to remove.
+     * If the desired mappings contain the same identity twice, the last one wins.
+     */
+    static final class StreamingPlanner {
+        private final IdentifiedMapping[] desired;
+        private final BitSet matched;
+        private final BitSet modified;
+        private final Set<ResourceMapping> removed = Sets.newHashSet();
+
+        private StreamingPlanner(final Collection<ResourceMapping> desiredResourceMappings) {
+            final List<IdentifiedMapping> sorted = new ArrayList<>(desiredResourceMappings.size());
+            for (final ResourceMapping resourceMapping : desiredResourceMappings) {
+                sorted.add(new IdentifiedMapping(resourceMapping));
+            }
+            // stable sort, so among equal identities the last one stays last
+            sorted.sort(Comparator.comparing(IdentifiedMapping::getKey));
+            final List<IdentifiedMapping> unique = new ArrayList<>(sorted.size());
+            for (final IdentifiedMapping identifiedMapping : sorted) {
+                final int last = unique.size() - 1;
+                if (last >= 0 && unique.get(last).getKey().equals(identifiedMapping.getKey())) {
+                    unique.set(last, identifiedMapping);
+                } else {
+                    unique.add(identifiedMapping);
+                }
+            }
+            this.desired = unique.toArray(new IdentifiedMapping[0]);
+            this.matched = new BitSet(desired.length);
+            this.modified = new BitSet(desired.length);
+        }
+
+        /**
+         * Merges one page of existing draft mappings.
+         *
+         * @param existingResourceMappings page of mappings currently in the draft version
+         */
+        void accept(final Collection<ResourceMapping> existingResourceMappings) {
+            for (final ResourceMapping resourceMapping : existingResourceMappings) {
+                final IdentifiedMapping existing = new IdentifiedMapping(resourceMapping);
+                final int index = indexOf(existing.getKey());
+                if (index < 0) {
+                    removed.add(resourceMapping);
+                } else if (existing.sameContentAs(desired[index])) {
+                    matched.set(index);
+                } else if (!matched.get(index)) {
+                    modified.set(index);
+                }
+            }
+        }
+
+        /**
+         * @return the delta after all pages have been merged
+         */
+        Delta finish() {
+            final Set<ResourceMapping> added = Sets.newHashSet();
+            final Set<ResourceMapping> modifiedMappings = Sets.newHashSet();
+            int unchanged = 0;
+            for (int i = 0; i < desired.length; i++) {
+                if (matched.get(i)) {
+                    unchanged++;
+                } else if (modified.get(i)) {
+                    modifiedMappings.add(desired[i].getResourceMapping());
+                } else {
+                    added.add(desired[i].getResourceMapping());
+                }
+            }
+            return new Delta(Collections.unmodifiableSet(added), Collections.unmodifiableSet(modifiedMappings),
+                Collections.unmodifiableSet(removed), unchanged);
+        }
+
+        private int indexOf(final MappingKey key) {
+            int low = 0;
+            int high = desired.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int comparison = desired[mid].getKey().compareTo(key);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (comparison > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Outcome of {@link #plan(Collection, Collection)} and {@link StreamingPlanner#finish()}.
+     */
+    @lombok.Value
+    static class Delta {
+        private final Set<ResourceMapping> added;
+        private final Set<ResourceMapping> modified;
+        private final Set<ResourceMapping> removed;
+        private final int unchanged;
+
+        /**
+         * @return mappings to send with AddDraftAppVersionResourceMappings, new and modified ones
+         */
+        Set<ResourceMapping> getMappingsToAdd() {
+            return Sets.union(added, modified);
+        }
+
+        /**
+         * @return mappings to send with RemoveDraftAppVersionResourceMappings
+         */
+        Set<ResourceMapping> getMappingsToRemove() {
+            return removed;
+        }
+
+        String summary() {
+            return String.format("%d added, %d modified, %d removed, %d unchanged",
+                added.size(), modified.size(), removed.size(), unchanged);
+        }
+    }
+
+    /**
+     * A mapping together with its logical identity and a content hash, both computed once.
+     */
+    @lombok.Getter
+    static final class IdentifiedMapping {
+        private final ResourceMapping resourceMapping;
+        private final MappingKey key;
+        private final int contentHash;
+
+        IdentifiedMapping(final ResourceMapping resourceMapping) {
+            this.resourceMapping = resourceMapping;
+            this.key = MappingKey.of(resourceMapping);
+            this.contentHash = resourceMapping.hashCode();
+        }
+
+        boolean sameContentAs(final IdentifiedMapping other) {
+            return contentHash == other.contentHash && resourceMapping.equals(other.resourceMapping);
+        }
+    }
+
+    /**
+     * Logical identity of a resource mapping. Mappings without a name, e.g. CFN stacks referenced only by ARN, and
+     * mappings of a type this handler does not know are identified by their physical resource id instead, like in
+     * {@link ResourceMappingTable}.
+     */
+    static final class MappingKey implements Comparable<MappingKey> {
+
+        private static final Comparator<MappingKey> ORDER = Comparator
+            .comparing((MappingKey key) -> key.mappingType, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(key -> key.name, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(key -> key.physicalIdentifier, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+        private final String mappingType;
+        private final String name;
+        private final String physicalIdentifier;
+        private final int hash;
+
+        private MappingKey(final String mappingType, final String name, final String physicalIdentifier) {
+            this.mappingType = mappingType;
+            this.name = name;
+            this.physicalIdentifier = physicalIdentifier;
+            this.hash = Objects.hash(mappingType, name, physicalIdentifier);
+        }
+
+        static MappingKey of(final ResourceMapping resourceMapping) {
+            final String name = nameOf(resourceMapping);
+            final String physicalIdentifier = name != null || resourceMapping.physicalResourceId() == null
+                ? null
+                : resourceMapping.physicalResourceId().identifier();
+            return new MappingKey(resourceMapping.mappingTypeAsString(), name, physicalIdentifier);
+        }
+
+        private static String nameOf(final ResourceMapping resourceMapping) {
+            if (resourceMapping.mappingType() == null) {
+                return null;
+            }
+            switch (resourceMapping.mappingType()) {
+                case CFN_STACK:
+                    return resourceMapping.logicalStackName();
+                case RESOURCE:
+                    return resourceMapping.resourceName();
+                case TERRAFORM:
+                    return resourceMapping.terraformSourceName();
+                case EKS:
+                    return resourceMapping.eksSourceName();
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public int compareTo(final MappingKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MappingKey)) {
+                return false;
+            }
+            final MappingKey other = (MappingKey) o;
+            return hash == other.hash
+                && Objects.equals(mappingType, other.mappingType)
+                && Objects.equals(name, other.name)
+                && Objects.equals(physicalIdentifier, other.physicalIdentifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return mappingType + ":" + (name != null ? name : physicalIdentifier);
+        }
+    }
+}
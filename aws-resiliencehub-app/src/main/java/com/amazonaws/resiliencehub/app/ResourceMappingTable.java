@@ -0,0 +1,394 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalResourceId;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+/**
+ * Compact, column-oriented set of resource mappings. Every string of a mapping, i.e. mapping type, physical identifier
+ * type, account, region, identifier and names, is replaced by an int code of a {@link Dictionary}, so each distinct string
+ * is held once and a mapping costs one fixed-size row of ints instead of two SDK objects with their own string copies.
+ * Rows are compared and looked up on their codes only. SDK and CFN objects are created only when mappings leave the table
+ * for an API call or the resource model.
+ * Tables that are compared with each other must share one dictionary.
+ */
+final class ResourceMappingTable {
+
+    private static final int MAPPING_TYPE = 0;
+    private static final int LOGICAL_STACK_NAME = 1;
+    private static final int RESOURCE_NAME = 2;
+    private static final int TERRAFORM_SOURCE_NAME = 3;
+    private static final int EKS_SOURCE_NAME = 4;
+    private static final int HAS_PHYSICAL_RESOURCE_ID = 5;
+    private static final int IDENTIFIER = 6;
+    private static final int IDENTIFIER_TYPE = 7;
+    private static final int AWS_ACCOUNT_ID = 8;
+    private static final int AWS_REGION = 9;
+    private static final int COLUMNS = 10;
+
+    private static final int NONE = -1;
+    private static final int EMPTY_SLOT = -1;
+
+    private final Dictionary dictionary;
+    private int[] cells;
+    private long[] keys;
+    private int size;
+    // open addressing hash indexes holding row numbers, rebuilt when half full
+    private int[] rowIndex;
+    private int[] keyIndex;
+
+    ResourceMappingTable(final Dictionary dictionary) {
+        this.dictionary = Validate.notNull(dictionary);
+        this.cells = new int[16 * COLUMNS];
+        this.keys = new long[16];
+        this.rowIndex = emptyIndex(32);
+        this.keyIndex = emptyIndex(32);
+    }
+
+    /**
+     * @param dictionary dictionary shared with the tables this one is compared with
+     * @param sdkResourceMappings mappings read from the service
+     * @return table holding the distinct mappings
+     */
+    static ResourceMappingTable ofSdkMappings(final Dictionary dictionary, final Collection<ResourceMapping> sdkResourceMappings) {
+        final ResourceMappingTable table = new ResourceMappingTable(dictionary);
+        table.addSdkMappings(sdkResourceMappings);
+        return table;
+    }
+
+    /**
+     * @param dictionary dictionary shared with the tables this one is compared with
+     * @param cfnResourceMappings mappings of the resource model, may be null
+     * @return table holding the distinct mappings
+     */
+    static ResourceMappingTable ofCfnMappings(final Dictionary dictionary,
+        final Collection<com.amazonaws.resiliencehub.app.ResourceMapping> cfnResourceMappings) {
+        final ResourceMappingTable table = new ResourceMappingTable(dictionary);
+        if (cfnResourceMappings != null) {
+            for (final com.amazonaws.resiliencehub.app.ResourceMapping cfnResourceMapping : cfnResourceMappings) {
+                table.addCfnMapping(cfnResourceMapping);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Adds mappings read from the service, e.g. one page of ListAppVersionResourceMappings. Duplicates are dropped.
+     *
+     * @param sdkResourceMappings mappings to add
+     */
+    void addSdkMappings(final Collection<ResourceMapping> sdkResourceMappings) {
+        Validate.notNull(sdkResourceMappings);
+        for (final ResourceMapping resourceMapping : sdkResourceMappings) {
+            final PhysicalResourceId physicalResourceId = resourceMapping.physicalResourceId();
+            addRow(resourceMapping.mappingTypeAsString(), resourceMapping.logicalStackName(), resourceMapping.resourceName(),
+                resourceMapping.terraformSourceName(), resourceMapping.eksSourceName(), physicalResourceId != null,
+                physicalResourceId == null ? null : physicalResourceId.identifier(),
+                physicalResourceId == null ? null : physicalResourceId.typeAsString(),
+                physicalResourceId == null ? null : physicalResourceId.awsAccountId(),
+                physicalResourceId == null ? null : physicalResourceId.awsRegion());
+        }
+    }
+
+    private void addCfnMapping(final com.amazonaws.resiliencehub.app.ResourceMapping resourceMapping) {
+        final com.amazonaws.resiliencehub.app.PhysicalResourceId physicalResourceId = resourceMapping.getPhysicalResourceId();
+        addRow(resourceMapping.getMappingType(), resourceMapping.getLogicalStackName(), resourceMapping.getResourceName(),
+            resourceMapping.getTerraformSourceName(), resourceMapping.getEksSourceName(), physicalResourceId != null,
+            physicalResourceId == null ? null : physicalResourceId.getIdentifier(),
+            physicalResourceId == null ? null : physicalResourceId.getType(),
+            physicalResourceId == null ? null : physicalResourceId.getAwsAccountId(),
+            physicalResourceId == null ? null : physicalResourceId.getAwsRegion());
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param row row of this table
+     * @return identity of the mapping: its mapping type and name, or its physical identifier when it has no name
+     */
+    long keyOf(final int row) {
+        return keys[row];
+    }
+
+    /**
+     * @param key identity as returned by {@link #keyOf(int)}
+     * @return last row added with that identity, or -1
+     */
+    int rowOfKey(final long key) {
+        final int mask = keyIndex.length - 1;
+        for (int slot = mix(Long.hashCode(key)) & mask; keyIndex[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (keyOf(keyIndex[slot]) == key) {
+                return keyIndex[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param row row of this table
+     * @param other table sharing this table's dictionary
+     * @param otherRow row of the other table
+     * @return whether both rows hold the same mapping
+     */
+    boolean sameRow(final int row, final ResourceMappingTable other, final int otherRow) {
+        return equalCells(cells, row * COLUMNS, other.cells, otherRow * COLUMNS);
+    }
+
+    /**
+     * @param other table sharing this table's dictionary
+     * @return whether both tables hold the same set of mappings
+     */
+    boolean sameMappingsAs(final ResourceMappingTable other) {
+        requireSameDictionary(other);
+        if (size != other.size) {
+            return false;
+        }
+        for (int row = 0; row < other.size; row++) {
+            if (findRow(other.cells, row * COLUMNS) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void requireSameDictionary(final ResourceMappingTable other) {
+        Validate.isTrue(dictionary == other.dictionary, "Resource mapping tables must share one dictionary");
+    }
+
+    /**
+     * @param row row of this table
+     * @return the mapping as SDK object
+     */
+    ResourceMapping toSdkResourceMapping(final int row) {
+        final int base = row * COLUMNS;
+        return ResourceMapping.builder()
+            .mappingType(string(base + MAPPING_TYPE))
+            .logicalStackName(string(base + LOGICAL_STACK_NAME))
+            .resourceName(string(base + RESOURCE_NAME))
+            .terraformSourceName(string(base + TERRAFORM_SOURCE_NAME))
+            .eksSourceName(string(base + EKS_SOURCE_NAME))
+            .physicalResourceId(cells[base + HAS_PHYSICAL_RESOURCE_ID] == 0
+                ? null
+                : PhysicalResourceId.builder()
+                    .identifier(string(base + IDENTIFIER))
+                    .type(string(base + IDENTIFIER_TYPE))
+                    .awsAccountId(string(base + AWS_ACCOUNT_ID))
+                    .awsRegion(string(base + AWS_REGION))
+                    .build())
+            .build();
+    }
+
+    /**
+     * @param rows rows of this table
+     * @return the mappings as SDK objects
+     */
+    Set<ResourceMapping> toSdkResourceMappings(final BitSet rows) {
+        final Set<ResourceMapping> resourceMappings = Sets.newHashSetWithExpectedSize(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            resourceMappings.add(toSdkResourceMapping(row));
+        }
+        return resourceMappings;
+    }
+
+    /**
+     * @return all mappings as resource model objects
+     */
+    List<com.amazonaws.resiliencehub.app.ResourceMapping> toCfnResourceMappings() {
+        final List<com.amazonaws.resiliencehub.app.ResourceMapping> resourceMappings = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            final int base = row * COLUMNS;
+            resourceMappings.add(com.amazonaws.resiliencehub.app.ResourceMapping.builder()
+                .mappingType(string(base + MAPPING_TYPE))
+                .logicalStackName(string(base + LOGICAL_STACK_NAME))
+                .resourceName(string(base + RESOURCE_NAME))
+                .terraformSourceName(string(base + TERRAFORM_SOURCE_NAME))
+                .eksSourceName(string(base + EKS_SOURCE_NAME))
+                .physicalResourceId(cells[base + HAS_PHYSICAL_RESOURCE_ID] == 0
+                    ? null
+                    : com.amazonaws.resiliencehub.app.PhysicalResourceId.builder()
+                        .identifier(string(base + IDENTIFIER))
+                        .type(string(base + IDENTIFIER_TYPE))
+                        .awsAccountId(string(base + AWS_ACCOUNT_ID))
+                        .awsRegion(string(base + AWS_REGION))
+                        .build())
+                .build());
+        }
+        return resourceMappings;
+    }
+
+    private void addRow(final String mappingType, final String logicalStackName, final String resourceName,
+        final String terraformSourceName, final String eksSourceName, final boolean hasPhysicalResourceId,
+        final String identifier, final String identifierType, final String awsAccountId, final String awsRegion) {
+        if (size == keys.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        final int base = size * COLUMNS;
+        cells[base + MAPPING_TYPE] = dictionary.encode(mappingType);
+        cells[base + LOGICAL_STACK_NAME] = dictionary.encode(logicalStackName);
+        cells[base + RESOURCE_NAME] = dictionary.encode(resourceName);
+        cells[base + TERRAFORM_SOURCE_NAME] = dictionary.encode(terraformSourceName);
+        cells[base + EKS_SOURCE_NAME] = dictionary.encode(eksSourceName);
+        cells[base + HAS_PHYSICAL_RESOURCE_ID] = hasPhysicalResourceId ? 1 : 0;
+        cells[base + IDENTIFIER] = dictionary.encode(identifier);
+        cells[base + IDENTIFIER_TYPE] = dictionary.encode(identifierType);
+        cells[base + AWS_ACCOUNT_ID] = dictionary.encode(awsAccountId);
+        cells[base + AWS_REGION] = dictionary.encode(awsRegion);
+        if (findRow(cells, base) >= 0) {
+            // already in the table, the cells are overwritten by the next row
+            return;
+        }
+        keys[size] = key(base);
+        size++;
+        if (size * 2 > rowIndex.length) {
+            rowIndex = emptyIndex(rowIndex.length * 2);
+            keyIndex = emptyIndex(keyIndex.length * 2);
+            for (int row = 0; row < size; row++) {
+                insertRow(row);
+                insertKey(row);
+            }
+        } else {
+            insertRow(size - 1);
+            insertKey(size - 1);
+        }
+    }
+
+    private int findRow(final int[] rowCells, final int base) {
+        final int mask = rowIndex.length - 1;
+        for (int slot = rowHash(rowCells, base) & mask; rowIndex[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            final int row = rowIndex[slot];
+            if (equalCells(cells, row * COLUMNS, rowCells, base)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void insertRow(final int row) {
+        final int mask = rowIndex.length - 1;
+        int slot = rowHash(cells, row * COLUMNS) & mask;
+        while (rowIndex[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        rowIndex[slot] = row;
+    }
+
+    private void insertKey(final int row) {
+        final long key = keyOf(row);
+        final int mask = keyIndex.length - 1;
+        int slot = mix(Long.hashCode(key)) & mask;
+        while (keyIndex[slot] != EMPTY_SLOT) {
+            if (keyOf(keyIndex[slot]) == key) {
+                // the last mapping with an identity wins
+                keyIndex[slot] = row;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keyIndex[slot] = row;
+    }
+
+    // mapping type in the upper bits, then a flag telling a name from a physical identifier and its code
+    private long key(final int base) {
+        final int nameColumn = nameColumn(cells[base + MAPPING_TYPE]);
+        final int name = nameColumn == NONE ? NONE : cells[base + nameColumn];
+        final long code = name != NONE ? (1L << 32) | name : cells[base + IDENTIFIER] & 0xFFFFFFFFL;
+        return ((long) cells[base + MAPPING_TYPE] << 33) | code;
+    }
+
+    private String string(final int cell) {
+        return dictionary.decode(cells[cell]);
+    }
+
+    private int nameColumn(final int mappingTypeCode) {
+        final String mappingType = dictionary.decode(mappingTypeCode);
+        if (mappingType == null) {
+            return NONE;
+        }
+        switch (mappingType) {
+            case "CfnStack":
+                return LOGICAL_STACK_NAME;
+            case "Resource":
+                return RESOURCE_NAME;
+            case "Terraform":
+                return TERRAFORM_SOURCE_NAME;
+            case "EKS":
+                return EKS_SOURCE_NAME;
+            default:
+                // types this handler does not know are only kept for reading, identified by their physical identifier
+                return NONE;
+        }
+    }
+
+    private static boolean equalCells(final int[] cells, final int base, final int[] otherCells, final int otherBase) {
+        for (int i = 0; i < COLUMNS; i++) {
+            if (cells[base + i] != otherCells[otherBase + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int rowHash(final int[] rowCells, final int base) {
+        int hash = 1;
+        for (int i = base; i < base + COLUMNS; i++) {
+            hash = 31 * hash + rowCells[i];
+        }
+        return mix(hash);
+    }
+
+    private static int mix(final int hash) {
+        // spread the low bits, the indexes are masked to a power of two
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] emptyIndex(final int capacity) {
+        final int[] index = new int[capacity];
+        Arrays.fill(index, EMPTY_SLOT);
+        return index;
+    }
+
+    /**
+     * Assigns every distinct string a dense int code, -1 stands for null.
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int encode(final String string) {
+            if (string == null) {
+                return NONE;
+            }
+            final Integer code = codes.get(string);
+            if (code != null) {
+                return code;
+            }
+            strings.add(string);
+            codes.put(string, strings.size() - 1);
+            return strings.size() - 1;
+        }
+
+        String decode(final int code) {
+            return code == NONE ? null : strings.get(code);
+        }
+
+        int size() {
+            return strings.size();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.amazonaws.resiliencehub.common.ChunkRunner;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalResourceId;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Sends resource mapping changes of an App in chunks, as configured in {@link HandlerSettings}.
+ * A writer created with a callback context records acknowledged chunks in its {@link MappingSyncCursor}. When a sync
+ * fails halfway, the handler returns the context with the cursor, and the next invocation only sends the chunks that
+ * were not acknowledged yet, provided it plans the exact same chunks. That holds for CreateHandler, which plans from
+ * the model alone. UpdateHandler plans from the draft, which already holds the acknowledged chunks, so it needs no
+ * cursor.
+ */
+class ResourceMappingWriter {
+
+    private static final String ADD_DRAFT_APP_VERSION_RESOURCE_MAPPINGS = "AddDraftAppVersionResourceMappings";
+    private static final String REMOVE_DRAFT_APP_VERSION_RESOURCE_MAPPINGS = "RemoveDraftAppVersionResourceMappings";
+
+    private final ProxyClient<ResiliencehubClient> proxyClient;
+    private final HandlerSettings settings;
+    private final CallbackContext callbackContext;
+    private final Logger logger;
+    private final ChunkRunner chunkRunner;
+
+    /**
+     * Creates a writer that sends every planned chunk.
+     */
+    ResourceMappingWriter(final ProxyClient<ResiliencehubClient> proxyClient, final HandlerSettings settings,
+        final Logger logger) {
+        this(proxyClient, settings, null, logger);
+    }
+
+    /**
+     * Creates a writer that resumes from the cursor in the callback context.
+     */
+    ResourceMappingWriter(final ProxyClient<ResiliencehubClient> proxyClient, final HandlerSettings settings,
+        final CallbackContext callbackContext, final Logger logger) {
+        this.proxyClient = Validate.notNull(proxyClient);
+        this.settings = Validate.notNull(settings);
+        this.callbackContext = callbackContext;
+        this.logger = Validate.notNull(logger);
+        this.chunkRunner = ChunkRunner.builder()
+            .maxAttempts(settings.getMappingChunkMaxAttempts())
+            .retryDelay(settings.getMappingChunkRetryDelay())
+            .build();
+    }
+
+    /**
+     * Adds the mappings to the draft version with one AddDraftAppVersionResourceMappings call per chunk.
+     *
+     * @param appArn application Arn
+     * @param resourceMappings mappings to add
+     */
+    void addResourceMappings(final String appArn, final Collection<ResourceMapping> resourceMappings) {
+        Validate.notBlank(appArn);
+        Validate.notNull(resourceMappings);
+
+        sync(ADD_DRAFT_APP_VERSION_RESOURCE_MAPPINGS, appArn, resourceMappings,
+            chunk -> ApiCallsWrapper.addDraftAppVersionResourceMappings(
+                Translator.translateToAddDraftAppVersionResourceMappingsRequest(appArn, chunk), proxyClient));
+    }
+
+    /**
+     * Removes the mappings from the draft version with one RemoveDraftAppVersionResourceMappings call per chunk. Chunks
+     * are sent one at a time, in the order of the mapping identity.
+     *
+     * @param appArn application Arn
+     * @param resourceMappings mappings to remove
+     */
+    void removeResourceMappings(final String appArn, final Collection<ResourceMapping> resourceMappings) {
+        Validate.notBlank(appArn);
+        Validate.notNull(resourceMappings);
+
+        sync(REMOVE_DRAFT_APP_VERSION_RESOURCE_MAPPINGS, appArn, resourceMappings,
+            chunk -> ApiCallsWrapper.removeDraftAppVersionResourceMappings(
+                Translator.translateToRemoveDraftAppVersionResourceMappingsRequest(appArn, chunk), proxyClient));
+    }
+
+    /**
+     * Applies a planned delta. Additions, which include replaced mappings, complete before any removal starts,
+     * so the draft is never missing a mapping that is being replaced.
+     *
+     * @param appArn application Arn
+     * @param delta planned delta
+     */
+    void applyDelta(final String appArn, final ResourceMappingDeltaPlanner.Delta delta) {
+        Validate.notNull(delta);
+
+        addResourceMappings(appArn, delta.getMappingsToAdd());
+        removeResourceMappings(appArn, delta.getMappingsToRemove());
+    }
+
+    private void sync(final String operation, final String appArn, final Collection<ResourceMapping> resourceMappings,
+        final Consumer<List<ResourceMapping>> call) {
+        // sorted, so that the chunks come out the same on every invocation for the cursor to apply
+        final List<List<ResourceMapping>> chunks = ResourceMappingChunker.chunk(sortedByIdentity(resourceMappings),
+            settings.getMappingChunkSize(), settings.getMappingChunkMaxBytes());
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        final MappingSyncCursor cursor = callbackContext == null ? new MappingSyncCursor() : resume(operation, appArn, chunks);
+        final List<Integer> pendingChunks = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            if (!cursor.isAcknowledged(i)) {
+                pendingChunks.add(i);
+            }
+        }
+        final List<ChunkRunner.ChunkReport> reports = chunkRunner.run(pendingChunks, chunkIndex -> {
+            call.accept(chunks.get(chunkIndex));
+            cursor.acknowledge(chunkIndex);
+        });
+        if (callbackContext != null) {
+            callbackContext.setMappingSyncCursor(null);
+        }
+
+        for (final ChunkRunner.ChunkReport report : reports) {
+            final int chunkIndex = pendingChunks.get(report.getIndex());
+            logger.log(String.format("%s chunk %d/%d with %d mappings took %d ms in %d attempt(s).", operation,
+                chunkIndex + 1, chunks.size(), chunks.get(chunkIndex).size(), report.getLatencyMillis(),
+                report.getAttempts()));
+        }
+    }
+
+    private MappingSyncCursor resume(final String operation, final String appArn, final List<List<ResourceMapping>> chunks) {
+        final String digest = digest(operation, appArn, chunks);
+        final MappingSyncCursor cursor = callbackContext.getMappingSyncCursor();
+        if (cursor != null && digest.equals(cursor.getDigest())) {
+            logger.log(String.format("Resuming %s at chunk %d/%d.", operation, cursor.getNextChunk() + 1, chunks.size()));
+            return cursor;
+        }
+        final MappingSyncCursor newCursor = new MappingSyncCursor(digest);
+        callbackContext.setMappingSyncCursor(newCursor);
+        return newCursor;
+    }
+
+    private static List<ResourceMapping> sortedByIdentity(final Collection<ResourceMapping> resourceMappings) {
+        return resourceMappings.stream()
+            .map(ResourceMappingDeltaPlanner.IdentifiedMapping::new)
+            .sorted(Comparator.comparing(ResourceMappingDeltaPlanner.IdentifiedMapping::getKey))
+            .map(ResourceMappingDeltaPlanner.IdentifiedMapping::getResourceMapping)
+            .collect(Collectors.toList());
+    }
+
+    static String digest(final String operation, final String appArn, final List<List<ResourceMapping>> chunks) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        putField(hasher, operation);
+        putField(hasher, appArn);
+        for (final List<ResourceMapping> chunk : chunks) {
+            hasher.putInt(chunk.size());
+            for (final ResourceMapping resourceMapping : chunk) {
+                putField(hasher, resourceMapping.mappingTypeAsString());
+                putField(hasher, resourceMapping.logicalStackName());
+                putField(hasher, resourceMapping.resourceName());
+                putField(hasher, resourceMapping.terraformSourceName());
+                putField(hasher, resourceMapping.eksSourceName());
+                final PhysicalResourceId physicalResourceId = resourceMapping.physicalResourceId();
+                putField(hasher, physicalResourceId == null ? null : physicalResourceId.identifier());
+                putField(hasher, physicalResourceId == null ? null : physicalResourceId.typeAsString());
+                putField(hasher, physicalResourceId == null ? null : physicalResourceId.awsAccountId());
+                putField(hasher, physicalResourceId == null ? null : physicalResourceId.awsRegion());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putField(final Hasher hasher, final String value) {
+        // length prefixed, so that neighbouring fields cannot run into each other
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+}
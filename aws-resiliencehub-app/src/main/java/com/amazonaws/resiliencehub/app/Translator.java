@@ -1,5 +1,6 @@
 package com.amazonaws.resiliencehub.app;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.util.ArrayList;
@@ -19,7 +20,10 @@ import software.amazon.awssdk.services.resiliencehub.model.CreateAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DeleteAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppsResponse;
@@ -47,7 +51,19 @@ public class Translator {
      * @return awsRequest the aws service request to create a resource
      */
     static CreateAppRequest translateToCreateAppRequest(final ResourceModel model) {
+        return translateToCreateAppRequest(model, null);
+    }
+
+    /**
+     * Request to create a resource that the service deduplicates by client token
+     *
+     * @param model resource model
+     * @param clientToken idempotency token, the same for every attempt of one CloudFormation request
+     * @return awsRequest the aws service request to create a resource
+     */
+    static CreateAppRequest translateToCreateAppRequest(final ResourceModel model, final String clientToken) {
         return CreateAppRequest.builder()
+            .clientToken(clientToken)
             .name(model.getName())
             .description(model.getDescription())
             .policyArn(model.getResiliencyPolicyArn())
@@ -123,15 +139,25 @@ public class Translator {
     }
 
     /**
-     * Request to list resources
+     * Request to list resources, filtered by the appArn or, when it is not set, the name of the given model. The ARN
+     * identifies a single app, so the name is not sent along with it.
      *
+     * @param model resource model carrying the filters, may be null
      * @param nextToken token passed to the aws service list resources request
+     * @param maxResults maximum number of apps in the page, null for the service default
      * @return awsRequest the aws service request to list resources within aws account
      */
-    static ListAppsRequest translateToListAppRequest(final String nextToken) {
-        return ListAppsRequest.builder()
+    static ListAppsRequest translateToListAppRequest(final ResourceModel model, final String nextToken,
+        final Integer maxResults) {
+        final ListAppsRequest.Builder builder = ListAppsRequest.builder()
             .nextToken(nextToken)
-            .build();
+            .maxResults(maxResults);
+        if (model != null && StringUtils.isNotEmpty(model.getAppArn())) {
+            builder.appArn(model.getAppArn());
+        } else if (model != null && StringUtils.isNotEmpty(model.getName())) {
+            builder.name(model.getName());
+        }
+        return builder.build();
     }
 
     /**
@@ -170,23 +196,23 @@ public class Translator {
      * @return awsRequest the aws service request to add template to an App
      */
     static PutDraftAppVersionTemplateRequest translateToPutDraftAppVersionTemplateRequest(final ResourceModel model) {
-        return PutDraftAppVersionTemplateRequest.builder()
-            .appArn(model.getAppArn())
-            .appTemplateBody(model.getAppTemplateBody())
-            .build();
+        return translateToPutDraftAppVersionTemplateRequest(model, false);
     }
 
     /**
-     * Request to add resource mappings to a draft App
+     * Request to add template to a draft App, optionally minifying the template body
      *
      * @param model resource model
-     * @return awsRequest the aws service request to add resource mappings to an App
+     * @param minifyAppTemplate whether insignificant whitespace should be stripped from the template body
+     * @return awsRequest the aws service request to add template to an App
      */
-    static AddDraftAppVersionResourceMappingsRequest translateToAddDraftAppVersionResourceMappingsRequest(
-        final ResourceModel model) {
-        return AddDraftAppVersionResourceMappingsRequest.builder()
+    static PutDraftAppVersionTemplateRequest translateToPutDraftAppVersionTemplateRequest(final ResourceModel model,
+        final boolean minifyAppTemplate) {
+        return PutDraftAppVersionTemplateRequest.builder()
             .appArn(model.getAppArn())
-            .resourceMappings(Translator.toSdkResourceMappings(model.getResourceMappings()))
+            .appTemplateBody(minifyAppTemplate
+                ? AppTemplateMinifier.minify(model.getAppTemplateBody())
+                : model.getAppTemplateBody())
             .build();
     }
 
@@ -198,7 +224,7 @@ public class Translator {
      * @return awsRequest the aws service request to add resource mappings to an App
      */
     static AddDraftAppVersionResourceMappingsRequest translateToAddDraftAppVersionResourceMappingsRequest(final String appArn,
-        final Set<software.amazon.awssdk.services.resiliencehub.model.ResourceMapping> sdkResourceMappings) {
+        final Collection<software.amazon.awssdk.services.resiliencehub.model.ResourceMapping> sdkResourceMappings) {
         Validate.notBlank(appArn);
         Validate.notNull(sdkResourceMappings);
 
@@ -216,7 +242,7 @@ public class Translator {
      * @return awsRequest the aws service request to remove resource mappings from an App
      */
     static RemoveDraftAppVersionResourceMappingsRequest translateToRemoveDraftAppVersionResourceMappingsRequest(final String appArn,
-        final Set<software.amazon.awssdk.services.resiliencehub.model.ResourceMapping> sdkResourceMappings) {
+        final Collection<software.amazon.awssdk.services.resiliencehub.model.ResourceMapping> sdkResourceMappings) {
         Validate.notBlank(appArn);
         Validate.notNull(sdkResourceMappings);
 
@@ -252,6 +278,37 @@ public class Translator {
             .build();
     }
 
+    /**
+     * Request to import CloudFormation stacks into a draft App
+     *
+     * @param appArn application Arn
+     * @param sourceArns Arns of the stacks to import
+     * @return awsRequest the aws service request to import resources into an App
+     */
+    static ImportResourcesToDraftAppVersionRequest translateToImportResourcesToDraftAppVersionRequest(final String appArn,
+        final Collection<String> sourceArns) {
+        Validate.notBlank(appArn);
+        Validate.notNull(sourceArns);
+
+        return ImportResourcesToDraftAppVersionRequest.builder()
+            .appArn(appArn)
+            .sourceArns(sourceArns)
+            .build();
+    }
+
+    /**
+     * Request to describe the status of the latest resource import into a draft App
+     *
+     * @param model resource model
+     * @return awsRequest the aws service request to describe the resource import status of an App
+     */
+    static DescribeDraftAppVersionResourcesImportStatusRequest translateToDescribeDraftAppVersionResourcesImportStatusRequest(
+        final ResourceModel model) {
+        return DescribeDraftAppVersionResourcesImportStatusRequest.builder()
+            .appArn(model.getAppArn())
+            .build();
+    }
+
     /**
      * Request to publish an App version
      *
@@ -271,7 +328,34 @@ public class Translator {
      * @return awsRequest the aws service request to describe App version template.
      */
     static DescribeAppVersionTemplateRequest translateToDescribeAppVersionTemplateRequest(final ResourceModel model) {
+        return translateToDescribeAppVersionTemplateRequest(Constants.RELEASE_VERSION, model);
+    }
+
+    /**
+     * Request to describe the template of a specific App version
+     *
+     * @param appVersion App version to read the template of
+     * @param model resource model
+     * @return awsRequest the aws service request to describe App version template.
+     */
+    static DescribeAppVersionTemplateRequest translateToDescribeAppVersionTemplateRequest(final String appVersion,
+        final ResourceModel model) {
+        Validate.notBlank(appVersion);
+        Validate.notNull(model);
         return DescribeAppVersionTemplateRequest.builder()
+            .appArn(model.getAppArn())
+            .appVersion(appVersion)
+            .build();
+    }
+
+    /**
+     * Request to describe the release version of an App
+     *
+     * @param model resource model
+     * @return awsRequest the aws service request to describe the release version of an App
+     */
+    static DescribeAppVersionRequest translateToDescribeReleaseAppVersionRequest(final ResourceModel model) {
+        return DescribeAppVersionRequest.builder()
             .appArn(model.getAppArn())
             .appVersion(Constants.RELEASE_VERSION)
             .build();
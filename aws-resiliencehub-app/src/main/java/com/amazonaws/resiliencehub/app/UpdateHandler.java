@@ -1,14 +1,12 @@
 package com.amazonaws.resiliencehub.app;
 
-import java.util.Set;
-
 import com.amazonaws.resiliencehub.common.Constants;
+import com.amazonaws.resiliencehub.common.StageEngine;
 import com.amazonaws.resiliencehub.common.TaggingUtil;
-import com.google.common.collect.Sets;
 
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
-import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -17,12 +15,24 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class UpdateHandler extends BaseHandlerStd {
 
+    static final String UPDATE_APP = "update-app";
+    static final String PUT_TEMPLATE = "put-template";
+    static final String SYNC_MAPPINGS = "sync-mappings";
+    static final String PUBLISH = "publish";
+    static final String AWAIT_PUBLISH = "await-publish";
+    static final String TAGS = "tags";
+    static final String READ = "read";
+
     private Logger logger;
 
     public UpdateHandler() {
         super();
     }
 
+    UpdateHandler(final HandlerSettings settings) {
+        super(settings);
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -32,16 +42,25 @@ public class UpdateHandler extends BaseHandlerStd {
         final Logger logger) {
 
         this.logger = logger;
-
-        // https://github.com/aws-cloudformation/cloudformation-cli-java-plugin/blob/master/src/main/java/software/amazon/cloudformation/proxy/CallChain.java
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress -> updateApp(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> updateTemplate(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> updateResourceMappings(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> publishUpdatedVersion(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> updateTags(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> new ReadHandler()
-                .handleRequest(proxy, request, callbackContext, proxyClient, logger));
+        // malformed models fail here instead of after the first service calls
+        ModelValidator.validate(request.getDesiredResourceState());
+
+        return StageEngine.<ResourceModel, CallbackContext>builder(logger)
+            .stage(UPDATE_APP, (model, context) -> updateApp(proxy, proxyClient, context, model))
+            .stage(PUT_TEMPLATE, (model, context) -> updateTemplate(proxy, proxyClient, context, model))
+            .stage(SYNC_MAPPINGS, (model, context) -> updateResourceMappings(proxy, proxyClient, context, model), PUT_TEMPLATE)
+            .stage(PUBLISH, (model, context) -> publishUpdatedVersion(proxy, proxyClient, context, model),
+                UPDATE_APP, SYNC_MAPPINGS)
+            .stage(AWAIT_PUBLISH, (model, context) -> new PublishStabilizer(proxyClient, settings, logger)
+                .await(context, model), PUBLISH)
+            .stage(TAGS, (model, context) -> updateTags(proxy, proxyClient, context, model))
+            // the final read is pinned to the published version
+            .stage(READ, (model, context) -> new ReadHandler()
+                .handleRequest(proxy, request, context, proxyClient, logger), AWAIT_PUBLISH, TAGS)
+            .callbackDelaySeconds(CALLBACK_DELAY_SECONDS)
+            .contextMaxBytes(settings.getCallbackContextMaxBytes(), settings.isEnforceCallbackContextMaxBytes())
+            .build()
+            .run(request.getDesiredResourceState(), callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> updateApp(
@@ -64,14 +83,14 @@ public class UpdateHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        return proxy.initiate("AWS-ResilienceHub-App::update-template", proxyClient, model, callbackContext)
-            .translateToServiceRequest(Translator::translateToPutDraftAppVersionTemplateRequest)
-            .makeServiceCall(ApiCallsWrapper::putDraftAppVersionTemplate)
-            .done(putDraftAppVersionTemplateResponse -> {
-                logger.log(String.format("Successfully updated template for %s [%s].",
-                    ResourceModel.TYPE_NAME, model.getName()));
-                return ProgressEvent.progress(model, callbackContext);
-            });
+        // the template can be hundreds of KB, so it is sent directly instead of being memoized in the call graph
+        final PutDraftAppVersionTemplateRequest putDraftAppVersionTemplateRequest = Translator
+            .translateToPutDraftAppVersionTemplateRequest(model, settings.isMinifyAppTemplate());
+        ApiCallsWrapper.putDraftAppVersionTemplate(putDraftAppVersionTemplateRequest, proxyClient);
+        logger.log(String.format("Successfully updated template for %s [%s], %d bytes saved by minification.",
+            ResourceModel.TYPE_NAME, model.getName(), AppTemplateMinifier.bytesSaved(model.getAppTemplateBody(),
+                putDraftAppVersionTemplateRequest.appTemplateBody())));
+        return ProgressEvent.progress(model, callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> updateResourceMappings(
@@ -83,14 +102,24 @@ public class UpdateHandler extends BaseHandlerStd {
         final ListAppVersionResourceMappingsRequest request = Translator
             .translateToListAppVersionResourceMappingsRequest(Constants.DRAFT_VERSION, model);
 
-        final Set<ResourceMapping> existingResourceMappings = ApiCallsWrapper.fetchAllResourceMappings(request, proxyClient);
-        final Set<ResourceMapping> desiredResourceMappings = Translator.toSdkResourceMappings(model.getResourceMappings());
-        final Set<ResourceMapping> resourceMappingsToRemove = Sets.difference(existingResourceMappings, desiredResourceMappings);
-        final Set<ResourceMapping> resourceMappingsToAdd = Sets.difference(desiredResourceMappings, existingResourceMappings);
-
-        ApiCallsWrapper.removeDraftAppVersionResourceMappings(model.getAppArn(), resourceMappingsToRemove, proxyClient);
-        ApiCallsWrapper.addDraftAppVersionResourceMappings(model.getAppArn(), resourceMappingsToAdd, proxyClient);
-        logger.log(String.format("Successfully updated resource mappings for %s [%s].", ResourceModel.TYPE_NAME, model.getName()));
+        final ResourceMappingDeltaPlanner.Delta delta;
+        if (settings.isStreamingMappingDiff()) {
+            // Mutations wait until paging is done, removing mappings mid-listing would invalidate the next token.
+            final ResourceMappingDeltaPlanner.StreamingPlanner planner = ResourceMappingDeltaPlanner
+                .streaming(Translator.toSdkResourceMappings(model.getResourceMappings()));
+            ApiCallsWrapper.forEachResourceMappingsPage(request, proxyClient, planner::accept);
+            delta = planner.finish();
+        } else {
+            // both sides stay dictionary-encoded, only the mappings to send become SDK objects
+            final ResourceMappingTable.Dictionary dictionary = new ResourceMappingTable.Dictionary();
+            delta = ResourceMappingDeltaPlanner.plan(ApiCallsWrapper.fetchResourceMappingTable(request, proxyClient, dictionary),
+                ResourceMappingTable.ofCfnMappings(dictionary, model.getResourceMappings()));
+        }
+
+        // a failed chunk ends the stage, the retry plans again from the draft, which already holds the sent chunks
+        new ResourceMappingWriter(proxyClient, settings, logger).applyDelta(model.getAppArn(), delta);
+        logger.log(String.format("Successfully updated resource mappings for %s [%s]: %s.", ResourceModel.TYPE_NAME, model.getName(),
+            delta.summary()));
 
         return ProgressEvent.progress(model, callbackContext);
     }
@@ -100,10 +129,16 @@ public class UpdateHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
+        if (AppVersionComparator.isReleaseUpToDate(model, proxyClient)) {
+            logger.log(String.format("Draft of app %s [%s] matches its release version, skipping PublishAppVersion.",
+                ResourceModel.TYPE_NAME, model.getName()));
+            return ProgressEvent.progress(model, callbackContext);
+        }
         return proxy.initiate("AWS-ResilienceHub-App::publish-updated-version", proxyClient, model, callbackContext)
             .translateToServiceRequest(Translator::translateToPublishAppVersionRequest)
             .makeServiceCall(ApiCallsWrapper::publishAppVersion)
             .done(publishAppVersionResponse -> {
+                callbackContext.setPublishedAppVersion(publishAppVersionResponse.appVersion());
                 logger.log(String
                     .format("Successfully published an updated version [%s] for app %s [%s].",
                         publishAppVersionResponse.appVersion(), ResourceModel.TYPE_NAME, model.getName()));
@@ -118,8 +153,7 @@ public class UpdateHandler extends BaseHandlerStd {
         final ResourceModel model) {
 
         TaggingUtil.updateTags(model.getAppArn(), model.getTags(), proxyClient);
-        logger.log(String.format("Successfully updated tags for app [%s]. This completes the UPDATE for resource type %s.", model.getName(),
-            ResourceModel.TYPE_NAME));
+        logger.log(String.format("Successfully updated tags for app %s [%s].", ResourceModel.TYPE_NAME, model.getName()));
         return ProgressEvent.progress(model, callbackContext);
     }
 }
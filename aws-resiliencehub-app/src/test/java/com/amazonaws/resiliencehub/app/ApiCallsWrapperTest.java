@@ -21,6 +21,10 @@ import software.amazon.awssdk.services.resiliencehub.model.DeleteAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DeleteAppResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppsRequest;
@@ -145,7 +149,7 @@ public class ApiCallsWrapperTest {
     }
 
     @Test
-    public void testAddDraftAppVersionResourceMappings_withResourceMappingsAsInput() {
+    public void testAddDraftAppVersionResourceMappings_translatedRequest() {
         when(proxyClient.client()).thenReturn(resiliencehubClient);
         final Set<ResourceMapping> resourceMappings = ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING);
         final AddDraftAppVersionResourceMappingsRequest expectedRequest = AddDraftAppVersionResourceMappingsRequest
@@ -154,20 +158,12 @@ public class ApiCallsWrapperTest {
             .resourceMappings(resourceMappings)
             .build();
 
-        ApiCallsWrapper.addDraftAppVersionResourceMappings(TestDataProvider.APP_ARN, resourceMappings, proxyClient);
+        ApiCallsWrapper.addDraftAppVersionResourceMappings(Translator
+            .translateToAddDraftAppVersionResourceMappingsRequest(TestDataProvider.APP_ARN, resourceMappings), proxyClient);
 
         verify(proxyClient).injectCredentialsAndInvokeV2(eq(expectedRequest), any());
     }
 
-    @Test
-    public void testAddDraftAppVersionResourceMappings_withEmptyResourceMappings() {
-        final Set<ResourceMapping> resourceMappings = ImmutableSet.of();
-
-        ApiCallsWrapper.addDraftAppVersionResourceMappings(TestDataProvider.APP_ARN, resourceMappings, proxyClient);
-
-        verify(proxyClient, never()).injectCredentialsAndInvokeV2(any(), any());
-    }
-
     @Test
     public void testRemoveDraftAppVersionResourceMappings() {
         when(proxyClient.client()).thenReturn(resiliencehubClient);
@@ -184,20 +180,58 @@ public class ApiCallsWrapperTest {
             .eksSourceNames(TestDataProvider.EKS_SOURCE_NAME)
             .build();
 
-        ApiCallsWrapper.removeDraftAppVersionResourceMappings(TestDataProvider.APP_ARN, resourceMappings, proxyClient);
+        ApiCallsWrapper.removeDraftAppVersionResourceMappings(Translator
+            .translateToRemoveDraftAppVersionResourceMappingsRequest(TestDataProvider.APP_ARN, resourceMappings), proxyClient);
 
         verify(proxyClient).injectCredentialsAndInvokeV2(eq(expectedRequest), any());
     }
 
     @Test
-    public void testRemoveDraftAppVersionResourceMappings_emptyResourceMappings() {
-        final Set<ResourceMapping> resourceMappings = ImmutableSet.of();
+    public void testImportResourcesToDraftAppVersion() {
+        when(proxyClient.client()).thenReturn(resiliencehubClient);
+        final ImportResourcesToDraftAppVersionRequest importRequest = ImportResourcesToDraftAppVersionRequest.builder().build();
+        final ImportResourcesToDraftAppVersionResponse importResponse = ImportResourcesToDraftAppVersionResponse.builder().build();
+
+        doReturn(importResponse).when(proxyClient).injectCredentialsAndInvokeV2(same(importRequest), any());
+
+        assertEquals(importResponse, ApiCallsWrapper.importResourcesToDraftAppVersion(importRequest, proxyClient));
+    }
+
+    @Test
+    public void testImportResourcesToDraftAppVersion_withSourceArnsAsInput() {
+        when(proxyClient.client()).thenReturn(resiliencehubClient);
+        final ImportResourcesToDraftAppVersionRequest expectedRequest = ImportResourcesToDraftAppVersionRequest.builder()
+            .appArn(TestDataProvider.APP_ARN)
+            .sourceArns(TestDataProvider.STACK_ARN)
+            .build();
 
-        ApiCallsWrapper.removeDraftAppVersionResourceMappings(TestDataProvider.APP_ARN, resourceMappings, proxyClient);
+        ApiCallsWrapper.importResourcesToDraftAppVersion(TestDataProvider.APP_ARN, ImmutableList.of(TestDataProvider.STACK_ARN),
+            proxyClient);
+
+        verify(proxyClient).injectCredentialsAndInvokeV2(eq(expectedRequest), any());
+    }
+
+    @Test
+    public void testImportResourcesToDraftAppVersion_withEmptySourceArns() {
+        ApiCallsWrapper.importResourcesToDraftAppVersion(TestDataProvider.APP_ARN, ImmutableList.of(), proxyClient);
 
         verify(proxyClient, never()).injectCredentialsAndInvokeV2(any(), any());
     }
 
+    @Test
+    public void testDescribeDraftAppVersionResourcesImportStatus() {
+        when(proxyClient.client()).thenReturn(resiliencehubClient);
+        final DescribeDraftAppVersionResourcesImportStatusRequest importStatusRequest =
+            DescribeDraftAppVersionResourcesImportStatusRequest.builder().build();
+        final DescribeDraftAppVersionResourcesImportStatusResponse importStatusResponse =
+            DescribeDraftAppVersionResourcesImportStatusResponse.builder().build();
+
+        doReturn(importStatusResponse).when(proxyClient).injectCredentialsAndInvokeV2(same(importStatusRequest), any());
+
+        assertEquals(importStatusResponse,
+            ApiCallsWrapper.describeDraftAppVersionResourcesImportStatus(importStatusRequest, proxyClient));
+    }
+
     @Test
     public void testPublishAppVersion() {
         when(proxyClient.client()).thenReturn(resiliencehubClient);
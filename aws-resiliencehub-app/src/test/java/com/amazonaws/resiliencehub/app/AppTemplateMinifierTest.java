@@ -0,0 +1,74 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AppTemplateMinifierTest {
+
+    private static final String PRETTY_TEMPLATE = "{\n"
+        + "  \"resources\" : [ {\n"
+        + "    \"logicalResourceId\" : { \"identifier\" : \"my bucket\" },\n"
+        + "    \"type\" : \"AWS::S3::Bucket\"\n"
+        + "  } ],\n"
+        + "  \"excludedResources\" : { },\n"
+        + "  \"version\" : 2.0\n"
+        + "}\n";
+    private static final String MINIFIED_TEMPLATE = "{\"resources\":[{\"logicalResourceId\":{\"identifier\":\"my bucket\"},"
+        + "\"type\":\"AWS::S3::Bucket\"}],\"excludedResources\":{},\"version\":2.0}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testMinify() throws IOException {
+        final String minified = AppTemplateMinifier.minify(PRETTY_TEMPLATE);
+
+        assertEquals(MINIFIED_TEMPLATE, minified);
+        assertEquals(objectMapper.readTree(PRETTY_TEMPLATE), objectMapper.readTree(minified));
+    }
+
+    @Test
+    public void testMinify_alreadyMinified() {
+        assertEquals(MINIFIED_TEMPLATE, AppTemplateMinifier.minify(MINIFIED_TEMPLATE));
+    }
+
+    @Test
+    public void testMinify_invalidJson() {
+        assertEquals(TestDataProvider.APP_TEMPLATE, AppTemplateMinifier.minify(TestDataProvider.APP_TEMPLATE));
+    }
+
+    @Test
+    public void testMinify_emptyTemplate() {
+        assertNull(AppTemplateMinifier.minify(null));
+        assertEquals("", AppTemplateMinifier.minify(""));
+    }
+
+    @Test
+    public void testBytesSaved() {
+        assertEquals(PRETTY_TEMPLATE.length() - MINIFIED_TEMPLATE.length(),
+            AppTemplateMinifier.bytesSaved(PRETTY_TEMPLATE, MINIFIED_TEMPLATE));
+        assertEquals(0, AppTemplateMinifier.bytesSaved(null, null));
+    }
+
+    @Test
+    public void testTranslateToPutDraftAppVersionTemplateRequest() {
+        final ResourceModel model = TestDataProvider.resourceModel();
+        model.setAppTemplateBody(PRETTY_TEMPLATE);
+
+        final PutDraftAppVersionTemplateRequest minifiedRequest = Translator
+            .translateToPutDraftAppVersionTemplateRequest(model, true);
+        final PutDraftAppVersionTemplateRequest request = Translator.translateToPutDraftAppVersionTemplateRequest(model);
+
+        assertEquals(MINIFIED_TEMPLATE, minifiedRequest.appTemplateBody());
+        assertEquals(PRETTY_TEMPLATE, request.appTemplateBody());
+        assertTrue(minifiedRequest.appTemplateBody().length() < request.appTemplateBody().length());
+    }
+}
@@ -0,0 +1,120 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.resiliencehub.common.Constants;
+import com.google.common.collect.ImmutableSet;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class AppVersionComparatorTest {
+
+    private static final String TEMPLATE = "{\"resources\":[],\"version\":2.0}";
+    private static final String REORDERED_TEMPLATE = "{\n  \"version\" : 2.0,\n  \"resources\" : [ ]\n}";
+
+    @Mock
+    private ResiliencehubClient resiliencehubClient;
+
+    @Mock
+    private ProxyClient<ResiliencehubClient> proxyClient;
+
+    private ResourceModel model;
+    private DescribeAppVersionTemplateRequest describeReleaseTemplateRequest;
+    private ListAppVersionResourceMappingsRequest listReleaseResourceMappingsRequest;
+
+    @BeforeEach
+    public void setup() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        model = TestDataProvider.resourceModel();
+        model.setAppTemplateBody(TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        describeReleaseTemplateRequest = Translator.translateToDescribeAppVersionTemplateRequest(model);
+        listReleaseResourceMappingsRequest = Translator
+            .translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, model);
+    }
+
+    @Test
+    public void testTemplateDigest() {
+        assertEquals(AppVersionComparator.templateDigest(TEMPLATE), AppVersionComparator.templateDigest(REORDERED_TEMPLATE));
+        assertEquals(AppVersionComparator.templateDigest(TestDataProvider.APP_TEMPLATE),
+            AppVersionComparator.templateDigest(TestDataProvider.APP_TEMPLATE));
+        assertNotEquals(AppVersionComparator.templateDigest(TEMPLATE), AppVersionComparator.templateDigest(TestDataProvider.APP_TEMPLATE));
+        assertNotEquals(AppVersionComparator.templateDigest(TEMPLATE), AppVersionComparator.templateDigest(null));
+    }
+
+    @Test
+    public void testIsReleaseUpToDate() {
+        doReturn(releaseTemplate(REORDERED_TEMPLATE)).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(describeReleaseTemplateRequest), any());
+        doReturn(releaseResourceMappings()).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(listReleaseResourceMappingsRequest), any());
+
+        assertTrue(AppVersionComparator.isReleaseUpToDate(model, proxyClient));
+    }
+
+    @Test
+    public void testIsReleaseUpToDate_neverPublished() {
+        doThrow(ResourceNotFoundException.builder().build()).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(describeReleaseTemplateRequest), any());
+
+        assertFalse(AppVersionComparator.isReleaseUpToDate(model, proxyClient));
+    }
+
+    @Test
+    public void testIsReleaseUpToDate_templateChanged() {
+        doReturn(releaseTemplate(TestDataProvider.APP_TEMPLATE)).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(describeReleaseTemplateRequest), any());
+
+        assertFalse(AppVersionComparator.isReleaseUpToDate(model, proxyClient));
+        verify(proxyClient, never()).injectCredentialsAndInvokeV2(eq(listReleaseResourceMappingsRequest), any());
+    }
+
+    @Test
+    public void testIsReleaseUpToDate_resourceMappingsChanged() {
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING)));
+        doReturn(releaseTemplate(TEMPLATE)).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(describeReleaseTemplateRequest), any());
+        doReturn(releaseResourceMappings()).when(proxyClient)
+            .injectCredentialsAndInvokeV2(eq(listReleaseResourceMappingsRequest), any());
+
+        assertFalse(AppVersionComparator.isReleaseUpToDate(model, proxyClient));
+    }
+
+    private static DescribeAppVersionTemplateResponse releaseTemplate(final String appTemplateBody) {
+        return DescribeAppVersionTemplateResponse.builder()
+            .appArn(TestDataProvider.APP_ARN)
+            .appVersion(Constants.RELEASE_VERSION)
+            .appTemplateBody(appTemplateBody)
+            .build();
+    }
+
+    private static ListAppVersionResourceMappingsResponse releaseResourceMappings() {
+        return ListAppVersionResourceMappingsResponse.builder()
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build();
+    }
+}
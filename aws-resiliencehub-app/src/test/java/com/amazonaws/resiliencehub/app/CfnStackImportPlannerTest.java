@@ -0,0 +1,50 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalIdentifierType;
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalResourceId;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CfnStackImportPlannerTest {
+
+    @Test
+    public void testPlan() {
+        final ResourceMapping unnamedStack = TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING.toBuilder()
+            .logicalStackName(null)
+            .build();
+        final ResourceMapping renamedStack = TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING.toBuilder()
+            .logicalStackName("otherName")
+            .build();
+
+        final CfnStackImportPlanner.Plan plan = CfnStackImportPlanner.plan(ImmutableList.of(
+            TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING, unnamedStack, renamedStack,
+            TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING,
+            TestDataProvider.TERRAFORM_RESOURCE_MAPPING, TestDataProvider.EKS_RESOURCE_MAPPING));
+
+        assertEquals(ImmutableList.of(TestDataProvider.STACK_ARN), plan.getSourceArns());
+        assertEquals(ImmutableList.of(unnamedStack, renamedStack, TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING,
+            TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING, TestDataProvider.TERRAFORM_RESOURCE_MAPPING,
+            TestDataProvider.EKS_RESOURCE_MAPPING), plan.getMappingsToAdd());
+    }
+
+    @Test
+    public void testPlan_nativeStackIdentifier() {
+        final ResourceMapping nativeStack = TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING.toBuilder()
+            .physicalResourceId(PhysicalResourceId.builder()
+                .type(PhysicalIdentifierType.NATIVE)
+                .identifier(TestDataProvider.STACK_ARN)
+                .build())
+            .build();
+
+        final CfnStackImportPlanner.Plan plan = CfnStackImportPlanner.plan(ImmutableList.of(nativeStack));
+
+        assertTrue(plan.getSourceArns().isEmpty());
+        assertEquals(ImmutableList.of(nativeStack), plan.getMappingsToAdd());
+    }
+}
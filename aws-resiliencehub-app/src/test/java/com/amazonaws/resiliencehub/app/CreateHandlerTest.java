@@ -1,27 +1,42 @@
 package com.amazonaws.resiliencehub.app;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import com.amazonaws.resiliencehub.common.AbstractTestBase;
 import com.amazonaws.resiliencehub.common.Constants;
+import com.amazonaws.resiliencehub.common.StageEngine;
 import com.google.common.collect.ImmutableSet;
 
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
 import software.amazon.awssdk.services.resiliencehub.model.AddDraftAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.AddDraftAppVersionResourceMappingsResponse;
 import software.amazon.awssdk.services.resiliencehub.model.App;
+import software.amazon.awssdk.services.resiliencehub.model.ConflictException;
 import software.amazon.awssdk.services.resiliencehub.model.CreateAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.CreateAppResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionTemplateResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ImportResourcesToDraftAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppVersionResourceMappingsResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListTagsForResourceRequest;
@@ -30,37 +45,55 @@ import software.amazon.awssdk.services.resiliencehub.model.PublishAppVersionRequ
 import software.amazon.awssdk.services.resiliencehub.model.PublishAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceImportStatusType;
+import software.amazon.awssdk.services.resiliencehub.model.ThrottlingException;
+import software.amazon.awssdk.services.resiliencehub.model.ValidationException;
+import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class CreateHandlerTest extends AbstractTestBase {
 
+    private static final int LARGE_TEMPLATE_BYTES = 400 * 1024;
+
     @Mock
     private ResiliencehubClient sdkClient;
 
     private AmazonWebServicesClientProxy proxy;
     private ProxyClient<ResiliencehubClient> proxyClient;
     private CreateHandler handler;
+    private final List<Duration> sleeps = new ArrayList<>();
 
     @BeforeEach
     public void setup() {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         proxyClient = MOCK_PROXY(proxy, sdkClient);
-        handler = new CreateHandler();
+        handler = new CreateHandler(settings().build());
     }
 
     @Test
     public void handleRequest_SimpleSuccess() {
+        // without an invocation time budget the handler requests a callback after creating the app
+        final CreateHandler callbackHandler = new CreateHandler(settings()
+            .invocationTimeBudget(Duration.ZERO)
+            .build());
         final CreateAppRequest createAppRequest = TestDataProvider.createAppRequest();
         final CreateAppResponse createAppResponse = TestDataProvider.createAppResponse(createAppRequest);
         final ResourceModel model = TestDataProvider.resourceModel(createAppResponse.app());
@@ -74,10 +107,85 @@ public class CreateHandlerTest extends AbstractTestBase {
         when(proxyClient.injectCredentialsAndInvokeV2(createAppRequest, proxyClient.client()::createApp)).thenReturn(createAppResponse);
 
         final CallbackContext context = new CallbackContext();
-        final ProgressEvent<ResourceModel, CallbackContext> actualResponse = handler
+        final ProgressEvent<ResourceModel, CallbackContext> actualResponse = callbackHandler
             .handleRequest(proxy, request, context, proxyClient, logger);
-        context.setCreated(true);
         assertEquals(ProgressEvent.defaultInProgressHandler(context, CreateHandler.CALLBACK_DELAY_SECONDS, model), actualResponse);
+        assertEquals(ImmutableSet.of(CreateHandler.CREATE_APP), context.getCompletedStages());
+    }
+
+    @Test
+    public void handleRequest_InvalidModel_FailsBeforeAnyServiceCall() {
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        model.setAppTemplateBody("appTemplateBody");
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        assertThrows(CfnInvalidRequestException.class,
+            () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+        verifyNoInteractions(sdkClient);
+    }
+
+    @Test
+    public void handleRequest_RetriedCreateApp_SendsSameClientToken() {
+        final String clientToken = "6c1b5b9e-2f4a-4f53-9d43-1d8c3a7b1e0f";
+        final CreateHandler callbackHandler = new CreateHandler(settings()
+            .invocationTimeBudget(Duration.ZERO)
+            .build());
+        final CreateAppRequest createAppRequest = TestDataProvider.createAppRequest().toBuilder()
+            .clientToken(clientToken)
+            .build();
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        model.setAppArn(null);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(clientToken)
+            .desiredResourceState(model)
+            .build();
+
+        // the service returns the app of the earlier attempt for the same client token
+        when(proxyClient.injectCredentialsAndInvokeV2(createAppRequest, proxyClient.client()::createApp))
+            .thenReturn(TestDataProvider.createAppResponse(createAppRequest));
+
+        // the first attempt died before CREATE_APP was recorded, so the retry starts from an empty context
+        callbackHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        final CallbackContext context = new CallbackContext();
+        final ProgressEvent<ResourceModel, CallbackContext> actualResponse = callbackHandler
+            .handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertEquals(OperationStatus.IN_PROGRESS, actualResponse.getStatus());
+        assertEquals(TestDataProvider.APP_ARN, actualResponse.getResourceModel().getAppArn());
+        assertEquals(ImmutableSet.of(CreateHandler.CREATE_APP), context.getCompletedStages());
+        verify(proxyClient.client(), times(2)).createApp(createAppRequest);
+    }
+
+    @Test
+    public void handleRequest_CreateConflict_Fails() {
+        // an app of the same name that was not created with this client token is never taken over
+        final String clientToken = "6c1b5b9e-2f4a-4f53-9d43-1d8c3a7b1e0f";
+        final CreateAppRequest createAppRequest = TestDataProvider.createAppRequest().toBuilder()
+            .clientToken(clientToken)
+            .build();
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        model.setAppArn(null);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(clientToken)
+            .desiredResourceState(model)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(createAppRequest, proxyClient.client()::createApp))
+            .thenThrow(ConflictException.builder().build());
+
+        assertThrows(CfnAlreadyExistsException.class,
+            () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+        verify(proxyClient.client(), never()).putDraftAppVersionTemplate(any(PutDraftAppVersionTemplateRequest.class));
     }
 
     @Test
@@ -91,19 +199,290 @@ public class CreateHandlerTest extends AbstractTestBase {
             .desiredResourceState(model)
             .build();
 
+        stubConfigureAndRead(app, model);
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+
+        //App was already created in the create-app stage
+        verify(proxyClient.client(), never()).createApp(any(CreateAppRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AddResourceMappingsThrottled_ResumesAfterCallback() {
+        final CreateHandler chunkedHandler = new CreateHandler(settings()
+            .mappingChunkSize(1)
+            .mappingChunkMaxAttempts(1)
+            .build());
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(Translator.toCfnResourceMappings(
+            ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToPutDraftAppVersionTemplateRequest(model),
+            proxyClient.client()::putDraftAppVersionTemplate)).thenReturn(PutDraftAppVersionTemplateResponse.builder().build());
+        // CfnStack sorts before Resource, so the first chunk goes through and the second one is throttled
+        when(proxyClient.injectCredentialsAndInvokeV2(AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(app.appArn())
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build(), proxyClient.client()::addDraftAppVersionResourceMappings))
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(app.appArn())
+            .resourceMappings(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING)
+            .build(), proxyClient.client()::addDraftAppVersionResourceMappings))
+            .thenThrow(ThrottlingException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build());
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThat(chunkedHandler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultInProgressHandler(context, CreateHandler.CALLBACK_DELAY_SECONDS, model));
+        // the retry resumes with the second mapping without putting the template again
+        assertEquals(1, context.getMappingSyncCursor().getNextChunk());
+        assertEquals(ImmutableSet.of(CreateHandler.CREATE_APP, CreateHandler.PUT_TEMPLATE), context.getCompletedStages());
+        assertEquals(1, context.getStageRetries());
+        verify(proxyClient.client(), never()).publishAppVersion(any(PublishAppVersionRequest.class));
+    }
+
+    @Test
+    public void handleRequest_LargeTemplate_CallbackContextWithinBudget() {
+        final int contextMaxBytes = 8 * 1024;
+        final CreateHandler budgetedHandler = new CreateHandler(settings()
+            .mappingChunkMaxAttempts(1)
+            .callbackContextMaxBytes(contextMaxBytes)
+            .enforceCallbackContextMaxBytes(true)
+            .build());
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(String.format("{\"resources\": [], \"padding\": \"%s\"}",
+            StringUtils.repeat('x', LARGE_TEMPLATE_BYTES)));
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToPutDraftAppVersionTemplateRequest(model),
+            proxyClient.client()::putDraftAppVersionTemplate)).thenReturn(PutDraftAppVersionTemplateResponse.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(app.appArn())
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build(), proxyClient.client()::addDraftAppVersionResourceMappings))
+            .thenThrow(ThrottlingException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build());
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        // the enforced ceiling fails the handler if a stage leaves the template in the callback context
+        assertThat(budgetedHandler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultInProgressHandler(context, CreateHandler.CALLBACK_DELAY_SECONDS, model));
+        assertTrue(StageEngine.serializedSize(context) <= contextMaxBytes);
+    }
+
+    @Test
+    public void handleRequest_ContinuesInlineWithinTimeBudget() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final CreateAppRequest createAppRequest = TestDataProvider.createAppRequest();
+        when(proxyClient.injectCredentialsAndInvokeV2(createAppRequest, proxyClient.client()::createApp))
+            .thenReturn(TestDataProvider.createAppResponse(createAppRequest));
+        stubConfigureAndRead(app, model);
+
+        final CallbackContext context = new CallbackContext();
+        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+        assertEquals(ImmutableSet.of(CreateHandler.CREATE_APP, CreateHandler.PUT_TEMPLATE, CreateHandler.SYNC_MAPPINGS,
+            CreateHandler.PUBLISH, CreateHandler.AWAIT_PUBLISH), context.getCompletedStages());
+        assertEquals(Collections.singletonList(Duration.ofSeconds(CreateHandler.CALLBACK_DELAY_SECONDS)), sleeps);
+    }
+
+    @Test
+    public void handleRequest_OverlapTemplateAndMappings_AddsMappingsWhileTemplateInFlight() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        // the template upload only returns once the mappings were added, which requires both stages in flight together
+        final CountDownLatch mappingsAdded = new CountDownLatch(1);
+        stubConfigureAndRead(app, model,
+            invocation -> {
+                assertTrue(mappingsAdded.await(10, TimeUnit.SECONDS));
+                return PutDraftAppVersionTemplateResponse.builder().build();
+            },
+            invocation -> {
+                mappingsAdded.countDown();
+                return AddDraftAppVersionResourceMappingsResponse.builder().build();
+            });
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThat(overlappingHandler().handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+        verify(proxyClient.client()).putDraftAppVersionTemplate(any(PutDraftAppVersionTemplateRequest.class));
+        verify(proxyClient.client()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_SequentialTemplateAndMappings_AddsMappingsAfterTemplate() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        stubConfigureAndRead(app, model);
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+        final InOrder inOrder = inOrder(proxyClient.client());
+        inOrder.verify(proxyClient.client()).putDraftAppVersionTemplate(any(PutDraftAppVersionTemplateRequest.class));
+        inOrder.verify(proxyClient.client()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ImportCfnStackMappings() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(Translator.toCfnResourceMappings(ImmutableSet.of(
+            TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        // only the mapping that is not named after its stack is added explicitly
+        stubConfigureAndRead(app, model);
+        final ImportResourcesToDraftAppVersionRequest importRequest = ImportResourcesToDraftAppVersionRequest.builder()
+            .appArn(app.appArn())
+            .sourceArns(TestDataProvider.STACK_ARN)
+            .build();
+        when(proxyClient.injectCredentialsAndInvokeV2(importRequest, proxyClient.client()::importResourcesToDraftAppVersion))
+            .thenReturn(ImportResourcesToDraftAppVersionResponse.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(
+            Translator.translateToDescribeDraftAppVersionResourcesImportStatusRequest(model),
+            proxyClient.client()::describeDraftAppVersionResourcesImportStatus))
+            .thenAnswer(invocation -> DescribeDraftAppVersionResourcesImportStatusResponse.builder()
+                .status(ResourceImportStatusType.SUCCESS)
+                .statusChangeTime(Instant.now())
+                .build());
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        final ProgressEvent<ResourceModel, CallbackContext> response = new CreateHandler(settings()
+            .importCfnStackMappings(true)
+            .build())
+            .handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertEquals(ImmutableSet.of(CreateHandler.CREATE_APP, CreateHandler.PUT_TEMPLATE, CreateHandler.SYNC_MAPPINGS,
+            CreateHandler.IMPORT_STACKS, CreateHandler.AWAIT_IMPORT, CreateHandler.PUBLISH, CreateHandler.AWAIT_PUBLISH),
+            context.getCompletedStages());
+        verify(proxyClient.client()).importResourcesToDraftAppVersion(importRequest);
+        verify(proxyClient.client()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_OverlapTemplateAndMappings_RetriesMappingsAfterTemplate() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        stubConfigureAndRead(app, model);
+        // the mappings refer to a stack of the template, which the service does not know before the template is put
+        when(proxyClient.injectCredentialsAndInvokeV2(AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(app.appArn())
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build(), proxyClient.client()::addDraftAppVersionResourceMappings))
+            .thenThrow(validationException(String.format("Logical stack name %s does not exist in the template.",
+                TestDataProvider.LOGICAL_STACK_NAME)))
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build());
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThat(overlappingHandler().handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+        // rejected while the template was in flight, then added once the template was put
+        verify(proxyClient.client(), times(2)).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_OverlapTemplateAndMappings_InvalidMappingFailsFast() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToPutDraftAppVersionTemplateRequest(model),
+            proxyClient.client()::putDraftAppVersionTemplate)).thenReturn(PutDraftAppVersionTemplateResponse.builder().build());
+        // a rejection that does not name an unknown stack is not deferred until after the template
+        when(proxyClient.injectCredentialsAndInvokeV2(AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(app.appArn())
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build(), proxyClient.client()::addDraftAppVersionResourceMappings))
+            .thenThrow(validationException("Invalid physical resource identifier."));
+
+        final CallbackContext context = new CallbackContext();
+        context.getCompletedStages().add(CreateHandler.CREATE_APP);
+        assertThrows(CfnInvalidRequestException.class,
+            () -> overlappingHandler().handleRequest(proxy, request, context, proxyClient, logger));
+        verify(proxyClient.client()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+        verify(proxyClient.client(), never()).publishAppVersion(any(PublishAppVersionRequest.class));
+    }
+
+    /**
+     * Stubs the calls after CreateApp.
+     */
+    private void stubConfigureAndRead(final App app, final ResourceModel model) {
+        stubConfigureAndRead(app, model,
+            invocation -> PutDraftAppVersionTemplateResponse.builder().build(),
+            invocation -> AddDraftAppVersionResourceMappingsResponse.builder().build());
+    }
+
+    /**
+     * Stubs the calls after CreateApp, answering the template and mapping calls with the given answers.
+     */
+    private void stubConfigureAndRead(final App app, final ResourceModel model,
+        final Answer<PutDraftAppVersionTemplateResponse> putTemplateAnswer,
+        final Answer<AddDraftAppVersionResourceMappingsResponse> addMappingsAnswer) {
         final PutDraftAppVersionTemplateRequest appVersionTemplateRequest = PutDraftAppVersionTemplateRequest.builder()
             .appArn(app.appArn())
             .appTemplateBody(TestDataProvider.APP_TEMPLATE)
             .build();
-        final PutDraftAppVersionTemplateResponse appVersionTemplateResponse = PutDraftAppVersionTemplateResponse
-            .builder().build();
         final AddDraftAppVersionResourceMappingsRequest addResourceMappingsRequest = AddDraftAppVersionResourceMappingsRequest
             .builder()
             .appArn(app.appArn())
             .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
             .build();
-        final AddDraftAppVersionResourceMappingsResponse addResourceMappingsResponse = AddDraftAppVersionResourceMappingsResponse
-            .builder().build();
         final PublishAppVersionRequest publishAppVersionRequest = PublishAppVersionRequest.builder()
             .appArn(app.appArn())
             .build();
@@ -113,9 +492,9 @@ public class CreateHandlerTest extends AbstractTestBase {
             .build();
 
         when(proxyClient.injectCredentialsAndInvokeV2(appVersionTemplateRequest, proxyClient.client()::putDraftAppVersionTemplate))
-            .thenReturn(appVersionTemplateResponse);
+            .thenAnswer(putTemplateAnswer);
         when(proxyClient.injectCredentialsAndInvokeV2(addResourceMappingsRequest,
-            proxyClient.client()::addDraftAppVersionResourceMappings)).thenReturn(addResourceMappingsResponse);
+            proxyClient.client()::addDraftAppVersionResourceMappings)).thenAnswer(addMappingsAnswer);
         when(proxyClient.injectCredentialsAndInvokeV2(publishAppVersionRequest, proxyClient.client()::publishAppVersion))
             .thenReturn(publishAppVersionResponse);
 
@@ -148,13 +527,22 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenReturn(describeAppVersionTemplateResponse);
         when(proxyClient.injectCredentialsAndInvokeV2(listResourceMappingsRequest, proxyClient.client()::listAppVersionResourceMappings))
             .thenReturn(listAppVersionResourceMappingsResponse);
+    }
 
-        final CallbackContext context = new CallbackContext();
-        context.setCreated(true);
-        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
-            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+    private CreateHandler overlappingHandler() {
+        return new CreateHandler(settings().overlapTemplateAndMappings(true).build());
+    }
 
-        //App was already created and context.isCreated=true
-        verify(proxyClient.client(), never()).createApp(any(CreateAppRequest.class));
+    private static ValidationException validationException(final String errorMessage) {
+        return ValidationException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("ValidationException").errorMessage(errorMessage).build())
+            .build();
+    }
+
+    /**
+     * @return settings of deployed handlers, except that inline continuations are recorded instead of slept through
+     */
+    private HandlerSettings.HandlerSettingsBuilder settings() {
+        return HandlerSettings.builder().inlineContinuationSleeper(sleeps::add);
     }
 }
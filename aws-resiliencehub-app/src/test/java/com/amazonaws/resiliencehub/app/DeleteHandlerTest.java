@@ -7,23 +7,35 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.amazonaws.resiliencehub.common.AbstractTestBase;
-import com.google.common.collect.ImmutableList;
 
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
 import software.amazon.awssdk.services.resiliencehub.model.App;
+import software.amazon.awssdk.services.resiliencehub.model.AppStatusType;
 import software.amazon.awssdk.services.resiliencehub.model.DeleteAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DeleteAppResponse;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListAppsRequest;
-import software.amazon.awssdk.services.resiliencehub.model.ListAppsResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +47,13 @@ public class DeleteHandlerTest extends AbstractTestBase {
     private AmazonWebServicesClientProxy proxy;
     private ProxyClient<ResiliencehubClient> proxyClient;
     private DeleteHandler handler;
+    private final List<Duration> sleeps = new ArrayList<>();
 
     @BeforeEach
     public void setup() {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         proxyClient = MOCK_PROXY(proxy, sdkClient);
-        handler = new DeleteHandler();
+        handler = new DeleteHandler(settings().build());
     }
 
     @Test
@@ -53,16 +66,16 @@ public class DeleteHandlerTest extends AbstractTestBase {
 
         final DeleteAppRequest deleteAppRequest = Translator.translateToDeleteAppRequest(model);
         final DeleteAppResponse deleteAppResponse = DeleteAppResponse.builder().appArn(app.appArn()).build();
-        final ListAppsRequest listAppsRequest = ListAppsRequest.builder().appArn(app.appArn()).build();
+        final DescribeAppRequest describeAppRequest = Translator.translateToReadAppRequest(model);
 
-
-        when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
-            .thenReturn(ListAppsResponse.builder().appSummaries(Collections.emptyList()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp))
+            .thenThrow(ResourceNotFoundException.builder().build());
         when(proxyClient.injectCredentialsAndInvokeV2(deleteAppRequest, proxyClient.client()::deleteApp))
             .thenReturn(deleteAppResponse);
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+        verify(sdkClient, never()).listApps(any(ListAppsRequest.class));
     }
 
     @Test
@@ -75,15 +88,121 @@ public class DeleteHandlerTest extends AbstractTestBase {
 
         final DeleteAppRequest deleteAppRequest = Translator.translateToDeleteAppRequest(model);
         final DeleteAppResponse deleteAppResponse = DeleteAppResponse.builder().appArn(app.appArn()).build();
-        final ListAppsRequest listAppsRequest = ListAppsRequest.builder().appArn(app.appArn()).build();
+        final DescribeAppRequest describeAppRequest = Translator.translateToReadAppRequest(model);
 
-        when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
-            .thenReturn(ListAppsResponse.builder().appSummaries(ImmutableList.of(TestDataProvider.appSummary(app))).build())
-            .thenReturn(ListAppsResponse.builder().appSummaries(Collections.emptyList()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp))
+            .thenReturn(DescribeAppResponse.builder().app(app.toBuilder().status(AppStatusType.DELETING).build()).build())
+            .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(deleteAppRequest, proxyClient.client()::deleteApp))
+            .thenReturn(deleteAppResponse);
+
+        final CallbackContext context = new CallbackContext();
+        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+        // the short first backoff is waited inside the invocation
+        verify(sdkClient, times(2)).describeApp(describeAppRequest);
+        assertEquals(1, sleeps.size());
+        assertNull(context.getDeletePollStartMillis());
+        assertEquals(0, context.getDeletePolls());
+    }
+
+    @Test
+    public void handleRequest_LongWaitHandedOffToCallback() {
+        final DeleteHandler callbackHandler = new DeleteHandler(settings()
+            .deletePollBaseDelay(Duration.ofSeconds(4))
+            .deletePollInlineMaxDelay(Duration.ofSeconds(1))
+            .build());
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final DeleteAppRequest deleteAppRequest = Translator.translateToDeleteAppRequest(model);
+        final DeleteAppResponse deleteAppResponse = DeleteAppResponse.builder().appArn(app.appArn()).build();
+        final DescribeAppRequest describeAppRequest = Translator.translateToReadAppRequest(model);
+
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp))
+            .thenReturn(DescribeAppResponse.builder().app(app.toBuilder().status(AppStatusType.DELETING).build()).build())
+            .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(deleteAppRequest, proxyClient.client()::deleteApp))
+            .thenReturn(deleteAppResponse);
+
+        final CallbackContext context = new CallbackContext();
+        final ProgressEvent<ResourceModel, CallbackContext> inProgress = callbackHandler
+            .handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertEquals(OperationStatus.IN_PROGRESS, inProgress.getStatus());
+        // 4 s with up to half of it jittered away
+        assertTrue(inProgress.getCallbackDelaySeconds() >= 2 && inProgress.getCallbackDelaySeconds() <= 4);
+        assertEquals(1, context.getDeletePolls());
+
+        // the callback polls again without deleting a second time
+        assertThat(callbackHandler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+        verify(sdkClient, times(1)).deleteApp(deleteAppRequest);
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void handleRequest_StatusLagsBehindDelete_Success() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final DeleteAppRequest deleteAppRequest = Translator.translateToDeleteAppRequest(model);
+        final DeleteAppResponse deleteAppResponse = DeleteAppResponse.builder().appArn(app.appArn()).build();
+        final DescribeAppRequest describeAppRequest = Translator.translateToReadAppRequest(model);
+
+        // the first poll right after DeleteApp still sees the app as ACTIVE
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp))
+            .thenReturn(DescribeAppResponse.builder().app(app.toBuilder().status(AppStatusType.ACTIVE).build()).build())
+            .thenReturn(DescribeAppResponse.builder().app(app.toBuilder().status(AppStatusType.DELETING).build()).build())
+            .thenThrow(ResourceNotFoundException.builder().build());
         when(proxyClient.injectCredentialsAndInvokeV2(deleteAppRequest, proxyClient.client()::deleteApp))
             .thenReturn(deleteAppResponse);
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+        verify(sdkClient, times(3)).describeApp(describeAppRequest);
+        assertEquals(2, sleeps.size());
+    }
+
+    @Test
+    public void handleRequest_AppNoLongerDeleting_Fails() {
+        final App app = TestDataProvider.app();
+        final ResourceModel model = TestDataProvider.resourceModel(app);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final DeleteAppRequest deleteAppRequest = Translator.translateToDeleteAppRequest(model);
+        final DeleteAppResponse deleteAppResponse = DeleteAppResponse.builder().appArn(app.appArn()).build();
+        final DescribeAppRequest describeAppRequest = Translator.translateToReadAppRequest(model);
+
+        // the deletion was rolled back by the service, polling further would only run into the handler timeout
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp))
+            .thenReturn(DescribeAppResponse.builder().app(app.toBuilder().status(AppStatusType.ACTIVE).build()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(deleteAppRequest, proxyClient.client()::deleteApp))
+            .thenReturn(deleteAppResponse);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler
+            .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertEquals(OperationStatus.FAILED, response.getStatus());
+        assertEquals(HandlerErrorCode.NotStabilized, response.getErrorCode());
+        // the grace polls are spent before the status counts
+        final int gracePolls = HandlerSettings.DEFAULT.getDeletePollStatusGracePolls();
+        verify(sdkClient, times(gracePolls + 1)).describeApp(describeAppRequest);
+        assertEquals(gracePolls, sleeps.size());
+    }
+
+    /**
+     * @return settings of deployed handlers, except that inline polling delays are recorded instead of slept through
+     */
+    private HandlerSettings.HandlerSettingsBuilder settings() {
+        return HandlerSettings.builder().deletePollSleeper(sleeps::add);
     }
 }
@@ -0,0 +1,204 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.amazonaws.resiliencehub.common.AbstractTestBase;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeDraftAppVersionResourcesImportStatusResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceImportStatusType;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftImportStabilizerTest extends AbstractTestBase {
+
+    private static final HandlerSettings SETTINGS = HandlerSettings.builder()
+        .importStatusMinPollDelay(Duration.ofSeconds(2))
+        .importStatusMaxPollDelay(Duration.ofSeconds(20))
+        .importStatusClockSkew(Duration.ofSeconds(5))
+        .importStatusMaxPolls(10)
+        .importStatusMaxWait(Duration.ofMinutes(10))
+        .build();
+
+    @Mock
+    private ResiliencehubClient resiliencehubClient;
+
+    @Mock
+    private ProxyClient<ResiliencehubClient> proxyClient;
+
+    @Test
+    public void testAwait_inProgress() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(importStatus(ResourceImportStatusType.IN_PROGRESS)).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = importStarted();
+
+        final ProgressEvent<ResourceModel, CallbackContext> event = new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model);
+
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertEquals(2, event.getCallbackDelaySeconds());
+        assertNotNull(context.getImportPollStartMillis());
+        assertEquals(1, context.getImportPolls());
+    }
+
+    @Test
+    public void testAwait_delayGrowsWithProcessingTime() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(importStatus(ResourceImportStatusType.PENDING)).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = importStarted();
+        context.setImportPollStartMillis(System.currentTimeMillis() - Duration.ofSeconds(30).toMillis());
+        context.setImportPolls(4);
+
+        final ProgressEvent<ResourceModel, CallbackContext> event = new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model);
+
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertTrue(event.getCallbackDelaySeconds() >= 15);
+        assertEquals(5, context.getImportPolls());
+    }
+
+    @Test
+    public void testAwait_success() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(importStatus(ResourceImportStatusType.SUCCESS)).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = importStarted();
+        context.setImportPollStartMillis(System.currentTimeMillis());
+        context.setImportPolls(2);
+
+        assertEquals(ProgressEvent.progress(model, context), new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        assertNull(context.getImportStartMillis());
+        assertNull(context.getImportPollStartMillis());
+        assertEquals(0, context.getImportPolls());
+    }
+
+    @Test
+    public void testAwait_nothingImported() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doThrow(ResourceNotFoundException.builder().build())
+            .when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = importStarted();
+
+        assertEquals(ProgressEvent.progress(model, context), new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+    }
+
+    @Test
+    public void testAwait_failed() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(importStatus(ResourceImportStatusType.FAILED)).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+
+        assertThrows(CfnNotStabilizedException.class, () -> new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(importStarted(), model));
+    }
+
+    @Test
+    public void testAwait_notStarted() {
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = new CallbackContext();
+
+        assertEquals(ProgressEvent.progress(model, context), new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        assertNull(context.getImportPollStartMillis());
+        verifyNoInteractions(proxyClient);
+    }
+
+    @Test
+    public void testAwait_failedBeforeImportStarted() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        final CallbackContext context = importStarted();
+        // a failure of an earlier import must not fail the import started by this handler
+        doReturn(importStatus(ResourceImportStatusType.FAILED).toBuilder()
+            .statusChangeTime(Instant.ofEpochMilli(context.getImportStartMillis()).minus(Duration.ofHours(1)))
+            .build()).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+
+        final ProgressEvent<ResourceModel, CallbackContext> event = new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model);
+
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertEquals(2, event.getCallbackDelaySeconds());
+        assertNotNull(context.getImportStartMillis());
+    }
+
+    @Test
+    public void testAwait_successWithinClockSkew() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        final CallbackContext context = importStarted();
+        // the service clock runs behind, so the import reports a change shortly before the handler started it
+        doReturn(importStatus(ResourceImportStatusType.SUCCESS).toBuilder()
+            .statusChangeTime(Instant.ofEpochMilli(context.getImportStartMillis()).minus(Duration.ofSeconds(3)))
+            .build()).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+
+        assertEquals(ProgressEvent.progress(model, context), new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        assertNull(context.getImportStartMillis());
+    }
+
+    @Test
+    public void testAwait_tooManyPolls() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(importStatus(ResourceImportStatusType.IN_PROGRESS)).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = importStarted();
+        context.setImportPollStartMillis(System.currentTimeMillis());
+        context.setImportPolls(9);
+
+        assertThrows(CfnNotStabilizedException.class, () -> new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+    }
+
+    @Test
+    public void testAwait_staleForTooLong() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        final CallbackContext context = importStarted();
+        context.setImportPollStartMillis(System.currentTimeMillis() - Duration.ofMinutes(11).toMillis());
+        // the service never reports the import this handler started
+        doReturn(importStatus(ResourceImportStatusType.SUCCESS).toBuilder()
+            .statusChangeTime(Instant.ofEpochMilli(context.getImportStartMillis()).minus(Duration.ofHours(1)))
+            .build()).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+
+        assertThrows(CfnNotStabilizedException.class, () -> new DraftImportStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+    }
+
+    private static CallbackContext importStarted() {
+        final CallbackContext context = new CallbackContext();
+        context.setImportStartMillis(System.currentTimeMillis());
+        return context;
+    }
+
+    private static DescribeDraftAppVersionResourcesImportStatusResponse importStatus(final ResourceImportStatusType status) {
+        return DescribeDraftAppVersionResourcesImportStatusResponse.builder()
+            .status(status)
+            .errorMessage(status == ResourceImportStatusType.FAILED ? "errorMessage" : null)
+            .build();
+    }
+}
@@ -29,6 +29,7 @@ import static org.mockito.Mockito.when;
 public class ListHandlerTest extends AbstractTestBase {
 
     private static final String NEXT_TOKEN = "nextToken";
+    private static final int PAGE_SIZE = HandlerSettings.DEFAULT.getListPageSize();
 
     @Mock
     private ResiliencehubClient sdkClient;
@@ -47,33 +48,109 @@ public class ListHandlerTest extends AbstractTestBase {
     @Test
     public void handleRequest_moreThanZeroAppsPresent() {
         final AppSummary appSummary = TestDataProvider.appSummary();
-        final ListAppsRequest listAppsRequest = Translator.translateToListAppRequest(null);
+        final ListAppsRequest listAppsRequest = Translator.translateToListAppRequest(null, null, PAGE_SIZE);
         final ListAppsResponse listAppsResponse = ListAppsResponse.builder()
             .appSummaries(ImmutableList.of(appSummary))
             .nextToken(NEXT_TOKEN)
             .build();
+        final ListAppsRequest nextListAppsRequest = Translator.translateToListAppRequest(null, NEXT_TOKEN, PAGE_SIZE);
+        final ListAppsResponse nextListAppsResponse = ListAppsResponse.builder()
+            .appSummaries(ImmutableList.of(appSummary))
+            .build();
 
         final ResourceModel model = TestDataProvider.resourceModel(appSummary);
         model.setTags(null); // Unsetting the fields that aren't returned in the ListApp response.
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
-            .desiredResourceState(model)
+            .desiredResourceState(ResourceModel.builder().build())
             .build();
 
         when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
             .thenReturn(listAppsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(nextListAppsRequest, proxyClient.client()::listApps))
+            .thenReturn(nextListAppsResponse);
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.builder()
+                .status(OperationStatus.SUCCESS)
+                .resourceModels(ImmutableList.of(model, model))
+                .build());
+    }
+
+    @Test
+    public void handleRequest_stopsAtMaxModels() {
+        final AppSummary appSummary = TestDataProvider.appSummary();
+        final ListAppsRequest listAppsRequest = Translator.translateToListAppRequest(null, null, 2);
+        final ListAppsResponse listAppsResponse = ListAppsResponse.builder()
+            .appSummaries(ImmutableList.of(appSummary, appSummary))
+            .nextToken(NEXT_TOKEN)
+            .build();
+        final ListAppsRequest nextListAppsRequest = Translator.translateToListAppRequest(null, NEXT_TOKEN, 1);
+        final ListAppsResponse nextListAppsResponse = ListAppsResponse.builder()
+            .appSummaries(ImmutableList.of(appSummary))
+            .nextToken(NEXT_TOKEN + "2")
+            .build();
+
+        final ResourceModel model = TestDataProvider.resourceModel(appSummary);
+        model.setTags(null);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
+            .thenReturn(listAppsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(nextListAppsRequest, proxyClient.client()::listApps))
+            .thenReturn(nextListAppsResponse);
+
+        final ListHandler listHandler = new ListHandler(HandlerSettings.builder()
+            .listPageSize(2)
+            .listMaxModels(3)
+            .build());
+        assertThat(listHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.builder()
+                .status(OperationStatus.SUCCESS)
+                .resourceModels(ImmutableList.of(model, model, model))
+                .nextToken(NEXT_TOKEN + "2")
+                .build());
+    }
+
+    @Test
+    public void handleRequest_stopsAtTimeBudget() {
+        final AppSummary appSummary = TestDataProvider.appSummary();
+        final ListAppsRequest listAppsRequest = Translator.translateToListAppRequest(null, NEXT_TOKEN, PAGE_SIZE);
+        final ListAppsResponse listAppsResponse = ListAppsResponse.builder()
+            .appSummaries(ImmutableList.of(appSummary))
+            .nextToken(NEXT_TOKEN + "2")
+            .build();
+
+        final ResourceModel model = TestDataProvider.resourceModel(appSummary);
+        model.setTags(null);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .nextToken(NEXT_TOKEN)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
+            .thenReturn(listAppsResponse);
+
+        // the first page is always read, however small the budget
+        final ListHandler listHandler = new ListHandler(HandlerSettings.builder()
+            .listTimeBudget(Duration.ZERO)
+            .build());
+        assertThat(listHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.builder()
                 .status(OperationStatus.SUCCESS)
                 .resourceModels(Collections.singletonList(model))
-                .nextToken(NEXT_TOKEN)
+                .nextToken(NEXT_TOKEN + "2")
                 .build());
     }
 
     @Test
     public void handleRequest_noAppsPresent() {
         final AppSummary appSummary = TestDataProvider.appSummary();
-        final ListAppsRequest listAppsRequest = Translator.translateToListAppRequest(null);
+        final ListAppsRequest listAppsRequest = ListAppsRequest.builder()
+            .appArn(appSummary.appArn())
+            .maxResults(PAGE_SIZE)
+            .build();
         final ListAppsResponse listAppsResponse = ListAppsResponse.builder().appSummaries(ImmutableList.of()).build();
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
@@ -92,4 +169,31 @@ public class ListHandlerTest extends AbstractTestBase {
                 .resourceModels(Collections.emptyList())
                 .build());
     }
+
+    @Test
+    public void handleRequest_nameFilterPushedDown() {
+        final AppSummary appSummary = TestDataProvider.appSummary();
+        final ListAppsRequest listAppsRequest = ListAppsRequest.builder()
+            .name(appSummary.name())
+            .maxResults(PAGE_SIZE)
+            .build();
+        final ListAppsResponse listAppsResponse = ListAppsResponse.builder()
+            .appSummaries(ImmutableList.of(appSummary))
+            .build();
+
+        final ResourceModel model = TestDataProvider.resourceModel(appSummary);
+        model.setTags(null);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().name(appSummary.name()).build())
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(listAppsRequest, proxyClient.client()::listApps))
+            .thenReturn(listAppsResponse);
+
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.builder()
+                .status(OperationStatus.SUCCESS)
+                .resourceModels(Collections.singletonList(model))
+                .build());
+    }
 }
@@ -0,0 +1,108 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModelValidatorTest {
+
+    @Test
+    public void testValidate() {
+        final ResourceModel model = validModel();
+        model.setAppTemplateBody(String.format("{\"resources\": [], \"padding\": \"%s\"}", StringUtils.repeat('x', 400 * 1024)));
+
+        final long start = System.nanoTime();
+        ModelValidator.validate(model);
+        // the whole point is to fail fast, a 400 KB template must not take long
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+
+    @Test
+    public void testValidate_withoutOptionalProperties() {
+        ModelValidator.validate(ResourceModel.builder().build());
+    }
+
+    @Test
+    public void testValidate_invalidName() {
+        final ResourceModel model = validModel();
+        model.setName("-invalid name");
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    @Test
+    public void testValidate_invalidTemplate() {
+        for (final String appTemplateBody : ImmutableList.of("appTemplateBody", "[]", "{\"resources\": [", "{} {}")) {
+            final ResourceModel model = validModel();
+            model.setAppTemplateBody(appTemplateBody);
+
+            assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model), appTemplateBody);
+        }
+    }
+
+    @Test
+    public void testValidate_unknownMappingType() {
+        final ResourceModel model = validModel();
+        model.getResourceMappings().get(0).setMappingType("AppRegistry");
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    @Test
+    public void testValidate_malformedPhysicalResourceId() {
+        final ResourceModel invalidType = validModel();
+        invalidType.getResourceMappings().get(0).getPhysicalResourceId().setType("Name");
+        final ResourceModel emptyIdentifier = validModel();
+        emptyIdentifier.getResourceMappings().get(0).getPhysicalResourceId().setIdentifier("");
+        final ResourceModel invalidAccount = validModel();
+        invalidAccount.getResourceMappings().get(0).getPhysicalResourceId().setAwsAccountId("123");
+        final ResourceModel invalidRegion = validModel();
+        invalidRegion.getResourceMappings().get(0).getPhysicalResourceId().setAwsRegion("Oregon");
+        final ResourceModel missing = validModel();
+        missing.getResourceMappings().get(0).setPhysicalResourceId(null);
+
+        for (final ResourceModel model : ImmutableList.of(invalidType, emptyIdentifier, invalidAccount, invalidRegion, missing)) {
+            assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+        }
+    }
+
+    @Test
+    public void testValidate_duplicateLogicalName() {
+        final ResourceModel model = validModel();
+        final List<ResourceMapping> resourceMappings = Translator.toCfnResourceMappings(ImmutableSet.of(
+            TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING,
+            TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder()
+                .physicalResourceId(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING.physicalResourceId())
+                .build()));
+        model.setResourceMappings(resourceMappings);
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    @Test
+    public void testValidate_missingSourceName() {
+        final ResourceModel model = validModel();
+        model.setResourceMappings(Translator.toCfnResourceMappings(ImmutableSet.of(
+            TestDataProvider.TERRAFORM_RESOURCE_MAPPING.toBuilder().terraformSourceName(null).build())));
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    private static ResourceModel validModel() {
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        model.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        model.setResourceMappings(Translator.toCfnResourceMappings(ImmutableSet.of(
+            TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING,
+            TestDataProvider.TERRAFORM_RESOURCE_MAPPING, TestDataProvider.EKS_RESOURCE_MAPPING)));
+        return model;
+    }
+}
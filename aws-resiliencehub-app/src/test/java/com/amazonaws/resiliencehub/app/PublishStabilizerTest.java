@@ -0,0 +1,93 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import com.amazonaws.resiliencehub.common.AbstractTestBase;
+import com.amazonaws.resiliencehub.common.Constants;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.DescribeAppVersionResponse;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class PublishStabilizerTest extends AbstractTestBase {
+
+    private static final HandlerSettings SETTINGS = HandlerSettings.builder()
+        .publishPollMinDelay(Duration.ofSeconds(2))
+        .publishPollMaxDelay(Duration.ofSeconds(10))
+        .build();
+
+    @Mock
+    private ResiliencehubClient resiliencehubClient;
+
+    @Mock
+    private ProxyClient<ResiliencehubClient> proxyClient;
+
+    @Test
+    public void testAwait_notPublished() {
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = new CallbackContext();
+
+        assertEquals(ProgressEvent.progress(model, context), new PublishStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        context.setPublishedAppVersion(Constants.RELEASE_VERSION);
+        assertEquals(ProgressEvent.progress(model, context), new PublishStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        verifyNoInteractions(proxyClient);
+    }
+
+    @Test
+    public void testAwait_releaseBehind() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(releaseAppVersion("1")).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = new CallbackContext();
+        context.setPublishedAppVersion("2");
+
+        final ProgressEvent<ResourceModel, CallbackContext> event = new PublishStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model);
+
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertEquals(2, event.getCallbackDelaySeconds());
+        assertNotNull(context.getPublishPollStartMillis());
+        assertEquals(1, context.getPublishPolls());
+    }
+
+    @Test
+    public void testAwait_releaseCaughtUp() {
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        doReturn(releaseAppVersion("2")).when(proxyClient).injectCredentialsAndInvokeV2(any(), any());
+        final ResourceModel model = TestDataProvider.resourceModel(TestDataProvider.app());
+        final CallbackContext context = new CallbackContext();
+        context.setPublishedAppVersion("2");
+        context.setPublishPollStartMillis(System.currentTimeMillis());
+        context.setPublishPolls(3);
+
+        assertEquals(ProgressEvent.progress(model, context), new PublishStabilizer(proxyClient, SETTINGS, logger)
+            .await(context, model));
+        assertNull(context.getPublishPollStartMillis());
+        assertEquals(0, context.getPublishPolls());
+        assertEquals("2", context.getPublishedAppVersion());
+    }
+
+    private static DescribeAppVersionResponse releaseAppVersion(final String appVersion) {
+        return DescribeAppVersionResponse.builder()
+            .appArn(TestDataProvider.APP_ARN)
+            .appVersion(appVersion)
+            .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceMappingDeltaPlannerTest {
+
+    private static final int LARGE_APP_MAPPING_COUNT = 100_000;
+
+    @Test
+    public void testPlan() {
+        final ResourceMapping movedStack = withIdentifier(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, "otherIdentifier");
+
+        final ResourceMappingDeltaPlanner.Delta delta = ResourceMappingDeltaPlanner.plan(
+            ImmutableList.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING,
+                TestDataProvider.TERRAFORM_RESOURCE_MAPPING),
+            ImmutableList.of(movedStack, TestDataProvider.TERRAFORM_RESOURCE_MAPPING, TestDataProvider.EKS_RESOURCE_MAPPING));
+
+        assertEquals(ImmutableSet.of(TestDataProvider.EKS_RESOURCE_MAPPING), delta.getAdded());
+        assertEquals(ImmutableSet.of(movedStack), delta.getModified());
+        assertEquals(ImmutableSet.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING), delta.getRemoved());
+        assertEquals(1, delta.getUnchanged());
+        assertEquals(ImmutableSet.of(movedStack, TestDataProvider.EKS_RESOURCE_MAPPING), delta.getMappingsToAdd());
+        assertEquals(ImmutableSet.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING), delta.getMappingsToRemove());
+        assertEquals("1 added, 1 modified, 1 removed, 1 unchanged", delta.summary());
+    }
+
+    @Test
+    public void testPlan_unnamedMappingsKeyedOnPhysicalIdentifier() {
+        final ResourceMapping stack1 = TestDataProvider.generateResourceMapping("arn:stack1");
+        final ResourceMapping stack2 = TestDataProvider.generateResourceMapping("arn:stack2");
+
+        final ResourceMappingDeltaPlanner.Delta delta = ResourceMappingDeltaPlanner.plan(
+            ImmutableList.of(stack1), ImmutableList.of(stack1, stack2));
+
+        assertEquals(ImmutableSet.of(stack2), delta.getMappingsToAdd());
+        assertTrue(delta.getMappingsToRemove().isEmpty());
+        assertEquals(1, delta.getUnchanged());
+    }
+
+    @Test
+    public void testMappingKey() {
+        final ResourceMappingDeltaPlanner.MappingKey stackKey = ResourceMappingDeltaPlanner.MappingKey
+            .of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING);
+
+        assertEquals(stackKey, ResourceMappingDeltaPlanner.MappingKey
+            .of(withIdentifier(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, "otherIdentifier")));
+        assertNotEquals(stackKey, ResourceMappingDeltaPlanner.MappingKey.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING));
+        assertNotEquals(stackKey, TestDataProvider.LOGICAL_STACK_NAME);
+        assertEquals("CfnStack:" + TestDataProvider.LOGICAL_STACK_NAME, stackKey.toString());
+        assertEquals("CfnStack:arn:stack", ResourceMappingDeltaPlanner.MappingKey
+            .of(TestDataProvider.generateResourceMapping("arn:stack")).toString());
+        assertTrue(stackKey.compareTo(ResourceMappingDeltaPlanner.MappingKey.of(TestDataProvider.EKS_RESOURCE_MAPPING)) < 0);
+    }
+
+    @Test
+    public void testMappingKey_unknownMappingType() {
+        final ResourceMapping untyped = TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder().mappingType((String) null).build();
+        final ResourceMapping futureType = TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder().mappingType("FutureType").build();
+
+        // without a known name column the physical identifier is the identity, so the resource name does not matter
+        assertEquals(ResourceMappingDeltaPlanner.MappingKey.of(untyped), ResourceMappingDeltaPlanner.MappingKey
+            .of(untyped.toBuilder().resourceName("otherResourceName").build()));
+        assertEquals(ResourceMappingDeltaPlanner.MappingKey.of(futureType), ResourceMappingDeltaPlanner.MappingKey
+            .of(futureType.toBuilder().resourceName("otherResourceName").build()));
+        assertNotEquals(ResourceMappingDeltaPlanner.MappingKey.of(untyped), ResourceMappingDeltaPlanner.MappingKey.of(futureType));
+        assertTrue(ResourceMappingDeltaPlanner.MappingKey.of(untyped)
+            .compareTo(ResourceMappingDeltaPlanner.MappingKey.of(futureType)) < 0);
+    }
+
+    @Test
+    public void testPlan_largeApp() {
+        final List<ResourceMapping> existing = new ArrayList<>(LARGE_APP_MAPPING_COUNT);
+        final List<ResourceMapping> desired = new ArrayList<>(LARGE_APP_MAPPING_COUNT);
+        final Set<ResourceMapping> added = new HashSet<>();
+        final Set<ResourceMapping> modified = new HashSet<>();
+        final Set<ResourceMapping> removed = new HashSet<>();
+        for (int i = 0; i < LARGE_APP_MAPPING_COUNT; i++) {
+            final ResourceMapping resourceMapping = TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder()
+                .resourceName("resource" + i)
+                .build();
+            existing.add(resourceMapping);
+            // every 10th mapping moved to another physical resource, every 100th replaced by a new one
+            if (i % 100 == 0) {
+                final ResourceMapping replacement = resourceMapping.toBuilder().resourceName("newResource" + i).build();
+                desired.add(replacement);
+                added.add(replacement);
+                removed.add(resourceMapping);
+            } else if (i % 10 == 0) {
+                final ResourceMapping moved = withIdentifier(resourceMapping, "moved" + i);
+                desired.add(moved);
+                modified.add(moved);
+            } else {
+                desired.add(resourceMapping);
+            }
+        }
+        Collections.shuffle(existing);
+
+        final ResourceMappingDeltaPlanner.Delta delta = ResourceMappingDeltaPlanner.plan(existing, desired);
+
+        assertEquals(1_000, added.size());
+        assertEquals(9_000, modified.size());
+        assertEquals(added, delta.getAdded());
+        assertEquals(modified, delta.getModified());
+        assertEquals(removed, delta.getRemoved());
+        assertEquals(89_000, delta.getUnchanged());
+    }
+
+    @Test
+    public void testStreaming() {
+        final ResourceMapping movedStack = withIdentifier(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, "otherIdentifier");
+        final ResourceMappingDeltaPlanner.StreamingPlanner planner = ResourceMappingDeltaPlanner.streaming(
+            ImmutableList.of(TestDataProvider.TERRAFORM_RESOURCE_MAPPING, TestDataProvider.EKS_RESOURCE_MAPPING,
+                TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, movedStack));
+
+        planner.accept(ImmutableList.of(TestDataProvider.TERRAFORM_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING));
+        planner.accept(ImmutableList.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING));
+        final ResourceMappingDeltaPlanner.Delta delta = planner.finish();
+
+        // the duplicate identity keeps the last desired mapping
+        assertEquals(ImmutableSet.of(TestDataProvider.EKS_RESOURCE_MAPPING), delta.getAdded());
+        assertEquals(ImmutableSet.of(movedStack), delta.getModified());
+        assertEquals(ImmutableSet.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING), delta.getRemoved());
+        assertEquals(1, delta.getUnchanged());
+    }
+
+    @Test
+    public void testStreaming_matchesInMemoryPlan() {
+        final List<ResourceMapping> existing = new ArrayList<>();
+        final List<ResourceMapping> desired = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            final ResourceMapping resourceMapping = TestDataProvider.generateResourceMapping("arn:stack" + i);
+            if (i % 3 != 0) {
+                existing.add(resourceMapping);
+            }
+            if (i % 5 != 0) {
+                desired.add(resourceMapping);
+            }
+        }
+        Collections.shuffle(existing);
+
+        final ResourceMappingDeltaPlanner.StreamingPlanner planner = ResourceMappingDeltaPlanner.streaming(desired);
+        for (final List<ResourceMapping> page : Lists.partition(existing, 100)) {
+            planner.accept(page);
+        }
+
+        assertEquals(ResourceMappingDeltaPlanner.plan(existing, desired), planner.finish());
+    }
+
+    @Test
+    public void testStreaming_unknownMappingType() {
+        final ResourceMapping untyped = TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder().mappingType((String) null).build();
+        final ResourceMapping futureType = TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING.toBuilder().mappingType("FutureType").build();
+        final ResourceMappingDeltaPlanner.StreamingPlanner planner = ResourceMappingDeltaPlanner.streaming(
+            ImmutableList.of(futureType, untyped, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING));
+
+        planner.accept(ImmutableList.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING, futureType));
+        final ResourceMappingDeltaPlanner.Delta delta = planner.finish();
+
+        assertEquals(ImmutableSet.of(untyped), delta.getAdded());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertEquals(2, delta.getUnchanged());
+    }
+
+    private static ResourceMapping withIdentifier(final ResourceMapping resourceMapping, final String identifier) {
+        return resourceMapping.toBuilder()
+            .physicalResourceId(resourceMapping.physicalResourceId().toBuilder().identifier(identifier).build())
+            .build();
+    }
+}
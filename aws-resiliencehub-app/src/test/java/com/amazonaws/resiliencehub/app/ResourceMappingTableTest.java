@@ -0,0 +1,122 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import software.amazon.awssdk.services.resiliencehub.model.PhysicalResourceId;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceMappingTableTest {
+
+    private static final List<ResourceMapping> SDK_RESOURCE_MAPPINGS = ImmutableList.of(
+        TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING,
+        TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING, TestDataProvider.TERRAFORM_RESOURCE_MAPPING,
+        TestDataProvider.EKS_RESOURCE_MAPPING);
+
+    @Test
+    public void testRoundTrip() {
+        final ResourceMappingTable table = ResourceMappingTable.ofSdkMappings(new ResourceMappingTable.Dictionary(),
+            SDK_RESOURCE_MAPPINGS);
+        final BitSet allRows = new BitSet();
+        allRows.set(0, table.size());
+
+        assertEquals(SDK_RESOURCE_MAPPINGS.size(), table.size());
+        assertEquals(new HashSet<>(SDK_RESOURCE_MAPPINGS), table.toSdkResourceMappings(allRows));
+        assertEquals(new HashSet<>(Translator.toCfnResourceMappings(new HashSet<>(SDK_RESOURCE_MAPPINGS))),
+            new HashSet<>(table.toCfnResourceMappings()));
+    }
+
+    @Test
+    public void testDuplicatesAreDropped() {
+        final ResourceMappingTable table = new ResourceMappingTable(new ResourceMappingTable.Dictionary());
+        table.addSdkMappings(SDK_RESOURCE_MAPPINGS);
+        table.addSdkMappings(SDK_RESOURCE_MAPPINGS);
+
+        assertEquals(SDK_RESOURCE_MAPPINGS.size(), table.size());
+    }
+
+    @Test
+    public void testSameMappingsAs() {
+        final ResourceMappingTable.Dictionary dictionary = new ResourceMappingTable.Dictionary();
+        final ResourceMappingTable sdkTable = ResourceMappingTable.ofSdkMappings(dictionary, SDK_RESOURCE_MAPPINGS);
+        final ResourceMappingTable cfnTable = ResourceMappingTable.ofCfnMappings(dictionary,
+            Translator.toCfnResourceMappings(ImmutableSet.copyOf(SDK_RESOURCE_MAPPINGS)));
+        final ResourceMappingTable otherTable = ResourceMappingTable.ofSdkMappings(dictionary,
+            SDK_RESOURCE_MAPPINGS.subList(1, SDK_RESOURCE_MAPPINGS.size()));
+
+        assertTrue(sdkTable.sameMappingsAs(cfnTable));
+        assertFalse(sdkTable.sameMappingsAs(otherTable));
+        assertTrue(ResourceMappingTable.ofCfnMappings(dictionary, null)
+            .sameMappingsAs(ResourceMappingTable.ofSdkMappings(dictionary, ImmutableList.of())));
+        assertThrows(IllegalArgumentException.class, () -> sdkTable.sameMappingsAs(
+            ResourceMappingTable.ofSdkMappings(new ResourceMappingTable.Dictionary(), SDK_RESOURCE_MAPPINGS)));
+    }
+
+    @Test
+    public void testKeys() {
+        final ResourceMapping movedStack = TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING.toBuilder()
+            .physicalResourceId(PhysicalResourceId.builder().type("Arn").identifier("otherIdentifier").build())
+            .build();
+        final ResourceMappingTable table = ResourceMappingTable.ofSdkMappings(new ResourceMappingTable.Dictionary(),
+            ImmutableList.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING, TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING,
+                movedStack, TestDataProvider.generateResourceMapping("Identifier")));
+
+        // same stack name, the last mapping wins
+        assertEquals(table.keyOf(0), table.keyOf(2));
+        assertEquals(2, table.rowOfKey(table.keyOf(0)));
+        // a name never matches an identifier, even if both are the same string
+        assertNotEquals(table.keyOf(0), table.keyOf(3));
+        assertNotEquals(table.keyOf(1), table.keyOf(3));
+        assertEquals(3, table.rowOfKey(table.keyOf(3)));
+        assertFalse(table.sameRow(0, table, 2));
+    }
+
+    @Test
+    public void testUnknownMappingTypeIsKept() {
+        final ResourceMapping appRegistryMapping = ResourceMapping.builder()
+            .mappingType("AppRegistryApp")
+            .physicalResourceId(PhysicalResourceId.builder().type("Arn").identifier("arn:appregistry").build())
+            .build();
+        final ResourceMappingTable table = ResourceMappingTable.ofSdkMappings(new ResourceMappingTable.Dictionary(),
+            ImmutableList.of(appRegistryMapping));
+
+        assertEquals(appRegistryMapping, table.toSdkResourceMapping(0));
+        assertEquals(0, table.rowOfKey(table.keyOf(0)));
+    }
+
+    @Test
+    public void testSharedStringsAreEncodedOnce() {
+        final List<ResourceMapping> resourceMappings = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            resourceMappings.add(ResourceMapping.builder()
+                .mappingType("Resource")
+                .resourceName("resource" + i)
+                .physicalResourceId(PhysicalResourceId.builder()
+                    .type("Native")
+                    .identifier("identifier" + i)
+                    .awsAccountId("012345678901")
+                    .awsRegion("us-west-2")
+                    .build())
+                .build());
+        }
+        final ResourceMappingTable.Dictionary dictionary = new ResourceMappingTable.Dictionary();
+        final ResourceMappingTable table = ResourceMappingTable.ofSdkMappings(dictionary, resourceMappings);
+
+        assertEquals(10_000, table.size());
+        // one name and one identifier per mapping, plus type, identifier type, account and region once
+        assertEquals(20_004, dictionary.size());
+    }
+}
@@ -0,0 +1,284 @@
+package com.amazonaws.resiliencehub.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.amazonaws.resiliencehub.common.AbstractTestBase;
+import com.google.common.collect.ImmutableList;
+
+import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.AddDraftAppVersionResourceMappingsRequest;
+import software.amazon.awssdk.services.resiliencehub.model.AddDraftAppVersionResourceMappingsResponse;
+import software.amazon.awssdk.services.resiliencehub.model.InternalServerException;
+import software.amazon.awssdk.services.resiliencehub.model.RemoveDraftAppVersionResourceMappingsRequest;
+import software.amazon.awssdk.services.resiliencehub.model.ResourceMapping;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ResourceMappingWriterTest extends AbstractTestBase {
+
+    private static final HandlerSettings CHUNKED_SETTINGS = HandlerSettings.builder()
+        .mappingChunkSize(2)
+        .mappingChunkRetryDelay(Duration.ZERO)
+        .build();
+
+    @Mock
+    private ResiliencehubClient resiliencehubClient;
+
+    @Mock
+    private ProxyClient<ResiliencehubClient> proxyClient;
+
+    @Test
+    public void testAddResourceMappings() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(5);
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        when(proxyClient.injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any()))
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build())
+            .thenThrow(InternalServerException.builder().build())
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build());
+
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, new CallbackContext(), logger)
+            .addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+
+        final ArgumentCaptor<AddDraftAppVersionResourceMappingsRequest> requestCaptor = ArgumentCaptor
+            .forClass(AddDraftAppVersionResourceMappingsRequest.class);
+        verify(proxyClient, times(4)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
+        // the failed second chunk is the only one sent twice
+        assertEquals(ImmutableList.of(
+            addRequest(resourceMappings.subList(0, 2)),
+            addRequest(resourceMappings.subList(2, 4)),
+            addRequest(resourceMappings.subList(2, 4)),
+            addRequest(resourceMappings.subList(4, 5))), requestCaptor.getAllValues());
+    }
+
+    @Test
+    public void testAddResourceMappings_noMappings() {
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, new CallbackContext(), logger)
+            .addResourceMappings(TestDataProvider.APP_ARN, ImmutableList.of());
+
+        verify(proxyClient, never()).injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any());
+    }
+
+    @Test
+    public void testRemoveResourceMappings_noMappings() {
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, new CallbackContext(), logger)
+            .removeResourceMappings(TestDataProvider.APP_ARN, ImmutableList.of());
+
+        verify(proxyClient, never()).injectCredentialsAndInvokeV2(any(RemoveDraftAppVersionResourceMappingsRequest.class), any());
+    }
+
+    @Test
+    public void testApplyDelta() {
+        final List<ResourceMapping> existing = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            existing.add(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING.toBuilder().logicalStackName("stack" + i).build());
+        }
+        final ResourceMappingDeltaPlanner.Delta delta = ResourceMappingDeltaPlanner
+            .plan(existing, ImmutableList.of(existing.get(0), TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING));
+        doReturn(resiliencehubClient).when(proxyClient).client();
+
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, logger)
+            .applyDelta(TestDataProvider.APP_ARN, delta);
+
+        // the addition completes before the removals, which are sent in order in chunks of at most 2 names
+        final InOrder inOrder = inOrder(proxyClient);
+        inOrder.verify(proxyClient).injectCredentialsAndInvokeV2(
+            eq(addRequest(ImmutableList.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING))), any());
+        final ArgumentCaptor<RemoveDraftAppVersionResourceMappingsRequest> requestCaptor = ArgumentCaptor
+            .forClass(RemoveDraftAppVersionResourceMappingsRequest.class);
+        inOrder.verify(proxyClient, times(3)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
+        assertEquals(ImmutableList.of(
+            removeRequest(existing.subList(1, 3)),
+            removeRequest(existing.subList(3, 5)),
+            removeRequest(existing.subList(5, 6))), requestCaptor.getAllValues());
+    }
+
+    @Test
+    public void testAddResourceMappings_resumesAfterFailedChunk() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(5);
+        final HandlerSettings settings = CHUNKED_SETTINGS.toBuilder().mappingChunkMaxAttempts(1).build();
+        final CallbackContext callbackContext = new CallbackContext();
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        when(proxyClient.injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any()))
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build())
+            .thenThrow(InternalServerException.builder().build())
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build());
+
+        final ResourceMappingWriter writer = new ResourceMappingWriter(proxyClient, settings, callbackContext, logger);
+        assertThrows(CfnInternalFailureException.class, () -> writer.addResourceMappings(TestDataProvider.APP_ARN, resourceMappings));
+        assertEquals(1, callbackContext.getMappingSyncCursor().getNextChunk());
+
+        // re-invocation with the same plan and the returned callback context
+        new ResourceMappingWriter(proxyClient, settings, callbackContext, logger)
+            .addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+
+        final ArgumentCaptor<AddDraftAppVersionResourceMappingsRequest> requestCaptor = ArgumentCaptor
+            .forClass(AddDraftAppVersionResourceMappingsRequest.class);
+        verify(proxyClient, times(4)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
+        // the acknowledged first chunk is not sent again, the failed second chunk is sent once more
+        assertEquals(ImmutableList.of(
+            addRequest(resourceMappings.subList(0, 2)),
+            addRequest(resourceMappings.subList(2, 4)),
+            addRequest(resourceMappings.subList(2, 4)),
+            addRequest(resourceMappings.subList(4, 5))), requestCaptor.getAllValues());
+        assertNull(callbackContext.getMappingSyncCursor());
+    }
+
+    @Test
+    public void testAddResourceMappings_resumptionSendsNoDuplicateChunks() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(9);
+        final HandlerSettings settings = CHUNKED_SETTINGS.toBuilder().mappingChunkMaxAttempts(1).build();
+        final CallbackContext callbackContext = new CallbackContext();
+        // the second and the fourth chunk fail once each, so the sync takes three invocations
+        final Set<AddDraftAppVersionResourceMappingsRequest> failOnce = new HashSet<>(ImmutableList.of(
+            addRequest(resourceMappings.subList(2, 4)), addRequest(resourceMappings.subList(6, 8))));
+        final List<AddDraftAppVersionResourceMappingsRequest> acknowledged = new ArrayList<>();
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        when(proxyClient.injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any()))
+            .thenAnswer(invocation -> {
+                final AddDraftAppVersionResourceMappingsRequest request = invocation.getArgument(0);
+                if (failOnce.remove(request)) {
+                    throw InternalServerException.builder().build();
+                }
+                acknowledged.add(request);
+                return AddDraftAppVersionResourceMappingsResponse.builder().build();
+            });
+
+        int invocations = 0;
+        while (true) {
+            invocations++;
+            try {
+                new ResourceMappingWriter(proxyClient, settings, callbackContext, logger)
+                    .addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+                break;
+            } catch (final CfnInternalFailureException e) {
+                assertTrue(invocations < 3);
+            }
+        }
+
+        assertEquals(3, invocations);
+        // every chunk went through exactly once, in order
+        assertEquals(ImmutableList.of(
+            addRequest(resourceMappings.subList(0, 2)),
+            addRequest(resourceMappings.subList(2, 4)),
+            addRequest(resourceMappings.subList(4, 6)),
+            addRequest(resourceMappings.subList(6, 8)),
+            addRequest(resourceMappings.subList(8, 9))), acknowledged);
+        assertNull(callbackContext.getMappingSyncCursor());
+    }
+
+    @Test
+    public void testAddResourceMappings_ignoresCursorOfOtherPlan() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(5);
+        final CallbackContext callbackContext = new CallbackContext();
+        doReturn(resiliencehubClient).when(proxyClient).client();
+
+        // a cursor of the removals of the same mappings
+        final MappingSyncCursor otherOperation = new MappingSyncCursor(ResourceMappingWriter.digest(
+            "RemoveDraftAppVersionResourceMappings", TestDataProvider.APP_ARN,
+            ResourceMappingChunker.chunk(resourceMappings, 2, Integer.MAX_VALUE)));
+        otherOperation.acknowledge(1);
+        callbackContext.setMappingSyncCursor(otherOperation);
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, callbackContext, logger)
+            .addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+        verify(proxyClient, times(3)).injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any());
+
+        // a cursor of additions that were planned differently
+        final MappingSyncCursor otherPlan = new MappingSyncCursor(ResourceMappingWriter.digest(
+            "AddDraftAppVersionResourceMappings", TestDataProvider.APP_ARN,
+            ResourceMappingChunker.chunk(resourceMappings.subList(1, 5), 2, Integer.MAX_VALUE)));
+        otherPlan.acknowledge(1);
+        callbackContext.setMappingSyncCursor(otherPlan);
+        new ResourceMappingWriter(proxyClient, CHUNKED_SETTINGS, callbackContext, logger)
+            .addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+        verify(proxyClient, times(6)).injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any());
+    }
+
+    @Test
+    public void testAddResourceMappings_withoutCallbackContextSendsEveryChunk() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(5);
+        final HandlerSettings settings = CHUNKED_SETTINGS.toBuilder().mappingChunkMaxAttempts(1).build();
+        doReturn(resiliencehubClient).when(proxyClient).client();
+        when(proxyClient.injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any()))
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build())
+            .thenThrow(InternalServerException.builder().build())
+            .thenReturn(AddDraftAppVersionResourceMappingsResponse.builder().build());
+
+        final ResourceMappingWriter writer = new ResourceMappingWriter(proxyClient, settings, logger);
+        assertThrows(CfnInternalFailureException.class, () -> writer.addResourceMappings(TestDataProvider.APP_ARN, resourceMappings));
+        writer.addResourceMappings(TestDataProvider.APP_ARN, resourceMappings);
+
+        // without a cursor the second call starts over, UpdateHandler plans the acknowledged chunks away instead
+        verify(proxyClient, times(5)).injectCredentialsAndInvokeV2(any(AddDraftAppVersionResourceMappingsRequest.class), any());
+    }
+
+    @Test
+    public void testMappingSyncCursor() {
+        final MappingSyncCursor cursor = new MappingSyncCursor("digest");
+        assertFalse(cursor.isAcknowledged(0));
+
+        cursor.acknowledge(0);
+        cursor.acknowledge(1);
+        assertTrue(cursor.isAcknowledged(1));
+        assertFalse(cursor.isAcknowledged(2));
+
+        cursor.acknowledge(0);
+        assertEquals(2, cursor.getNextChunk());
+    }
+
+    @Test
+    public void testChunk() {
+        final List<ResourceMapping> resourceMappings = generateResourceMappings(5);
+        final int mappingSize = ResourceMappingChunker.estimatedSize(resourceMappings.get(0));
+
+        assertEquals(3, ResourceMappingChunker.chunk(resourceMappings, 2, Integer.MAX_VALUE).size());
+        assertEquals(2, ResourceMappingChunker.chunk(resourceMappings, 100, mappingSize * 3).size());
+        // a mapping larger than the byte limit still gets a chunk of its own
+        assertEquals(5, ResourceMappingChunker.chunk(resourceMappings, 100, 1).size());
+        assertEquals(ImmutableList.of(), ResourceMappingChunker.chunk(ImmutableList.of(), 100, 1));
+    }
+
+    private static AddDraftAppVersionResourceMappingsRequest addRequest(final List<ResourceMapping> resourceMappings) {
+        return AddDraftAppVersionResourceMappingsRequest.builder()
+            .appArn(TestDataProvider.APP_ARN)
+            .resourceMappings(resourceMappings)
+            .build();
+    }
+
+    private static RemoveDraftAppVersionResourceMappingsRequest removeRequest(final List<ResourceMapping> resourceMappings) {
+        return Translator.translateToRemoveDraftAppVersionResourceMappingsRequest(TestDataProvider.APP_ARN, resourceMappings);
+    }
+
+    static List<ResourceMapping> generateResourceMappings(final int count) {
+        final List<ResourceMapping> resourceMappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resourceMappings.add(TestDataProvider.generateResourceMapping("arn:stack" + i));
+        }
+        return resourceMappings;
+    }
+}
@@ -27,12 +27,15 @@ public class TestDataProvider {
     public static final String APP_ARN = "arn1";
     public static final String APP_NAME = "appName";
     public static final String APP_DESC = "appDesc";
-    public static final String APP_TEMPLATE = "appTemplateBody";
+    public static final String APP_TEMPLATE = "{\"resources\":[],\"appComponents\":[],\"excludedResources\":{},\"version\":2.0}";
     public static final String LOGICAL_STACK_NAME = "logicalStackName";
     public static final String TERRAFORM_SOURCE_NAME = "stateFile.tf";
     public static final String EKS_SOURCE_NAME = "eksSourceName";
     public static final String RESOURCE_NAME = "resourceName";
     public static final String POLICY_ARN = "PolicyArn";
+    public static final String STACK_NAME = "stackName";
+    public static final String STACK_ARN = "arn:aws:cloudformation:us-west-2:012345678901:stack/" + STACK_NAME + "/"
+        + "5b0f6c70-2f1a-11ee-be56-0242ac120002";
 
     public static final ResourceMapping CFN_BACKED_SDK_RESOURCE_MAPPING = ResourceMapping.builder()
         .logicalStackName(LOGICAL_STACK_NAME)
@@ -42,6 +45,14 @@ public class TestDataProvider {
             .identifier("Identifier")
             .build())
         .build();
+    public static final ResourceMapping STACK_ARN_SDK_RESOURCE_MAPPING = ResourceMapping.builder()
+        .logicalStackName(STACK_NAME)
+        .mappingType(ResourceMappingType.CFN_STACK)
+        .physicalResourceId(PhysicalResourceId.builder()
+            .type(PhysicalIdentifierType.ARN)
+            .identifier(STACK_ARN)
+            .build())
+        .build();
     public static final ResourceMapping NATIVE_SDK_RESOURCE_MAPPING = ResourceMapping.builder()
         .resourceName(RESOURCE_NAME)
         .mappingType(ResourceMappingType.RESOURCE)
@@ -13,6 +13,7 @@ import com.amazonaws.resiliencehub.common.Constants;
 import com.google.common.collect.ImmutableSet;
 
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
+import software.amazon.awssdk.services.resiliencehub.model.AddDraftAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.App;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeAppResponse;
@@ -26,6 +27,7 @@ import software.amazon.awssdk.services.resiliencehub.model.PublishAppVersionRequ
 import software.amazon.awssdk.services.resiliencehub.model.PublishAppVersionResponse;
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateRequest;
 import software.amazon.awssdk.services.resiliencehub.model.PutDraftAppVersionTemplateResponse;
+import software.amazon.awssdk.services.resiliencehub.model.RemoveDraftAppVersionResourceMappingsRequest;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateAppRequest;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateAppResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -34,11 +36,17 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class UpdateHandlerTest extends AbstractTestBase {
 
+    private static final String PREVIOUS_APP_TEMPLATE = "previousAppTemplateBody";
+    private static final String NEXT_TOKEN = "nextToken";
+
     @Mock
     private ResiliencehubClient sdkClient;
 
@@ -125,11 +133,173 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(proxyClient.injectCredentialsAndInvokeV2(describeAppRequest, proxyClient.client()::describeApp)).thenReturn(describeAppResponse);
         when(proxyClient.injectCredentialsAndInvokeV2(listTagsForResourceRequest, proxyClient.client()::listTagsForResource))
             .thenReturn(listTagsForResourceResponse);
-        when(proxyClient.injectCredentialsAndInvokeV2(describeAppVersionTemplateRequest, proxyClient.client()::describeAppVersionTemplate)).thenReturn(describeAppVersionTemplateResponse);
+        // The first call compares the release with the draft, the release still has the previous template
+        when(proxyClient.injectCredentialsAndInvokeV2(describeAppVersionTemplateRequest, proxyClient.client()::describeAppVersionTemplate))
+            .thenReturn(describeAppVersionTemplateResponse.toBuilder().appTemplateBody(PREVIOUS_APP_TEMPLATE).build())
+            .thenReturn(describeAppVersionTemplateResponse);
         when(proxyClient.injectCredentialsAndInvokeV2(listResourceMappingsRequestForRead,
             proxyClient.client()::listAppVersionResourceMappings)).thenReturn(listAppVersionResourceMappingsResponseForRead);
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.defaultSuccessHandler(desiredModel));
     }
+
+    @Test
+    public void handleRequest_DraftMatchesRelease_SkipsPublish() {
+        final App app = TestDataProvider.app();
+        final ResourceModel desiredModel = TestDataProvider.resourceModel(app);
+        desiredModel.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        desiredModel.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desiredModel)
+            .build();
+
+        final UpdateAppRequest updateAppRequest = Translator.translateToUpdateAppRequest(desiredModel);
+        final PutDraftAppVersionTemplateRequest appVersionTemplateRequest = Translator
+            .translateToPutDraftAppVersionTemplateRequest(desiredModel);
+        final ListAppVersionResourceMappingsRequest listDraftResourceMappingsRequest = Translator
+            .translateToListAppVersionResourceMappingsRequest(Constants.DRAFT_VERSION, desiredModel);
+        final ListAppVersionResourceMappingsRequest listReleaseResourceMappingsRequest = Translator
+            .translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, desiredModel);
+        final ListAppVersionResourceMappingsResponse listAppVersionResourceMappingsResponse = ListAppVersionResourceMappingsResponse
+            .builder()
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build();
+        final DescribeAppVersionTemplateResponse describeAppVersionTemplateResponse = DescribeAppVersionTemplateResponse
+            .builder()
+            .appArn(app.appArn())
+            .appVersion(Constants.RELEASE_VERSION)
+            .appTemplateBody(TestDataProvider.APP_TEMPLATE)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(updateAppRequest, proxyClient.client()::updateApp))
+            .thenReturn(UpdateAppResponse.builder().app(app).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(appVersionTemplateRequest, proxyClient.client()::putDraftAppVersionTemplate))
+            .thenReturn(PutDraftAppVersionTemplateResponse.builder().appArn(app.appArn()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(listDraftResourceMappingsRequest,
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(listAppVersionResourceMappingsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(listReleaseResourceMappingsRequest,
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(listAppVersionResourceMappingsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToDescribeAppVersionTemplateRequest(desiredModel),
+            proxyClient.client()::describeAppVersionTemplate)).thenReturn(describeAppVersionTemplateResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToReadAppRequest(desiredModel), proxyClient.client()::describeApp))
+            .thenReturn(TestDataProvider.describeAppResponse(app));
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToListTagsForResourceRequest(desiredModel),
+            proxyClient.client()::listTagsForResource)).thenReturn(ListTagsForResourceResponse.builder().tags(app.tags()).build());
+
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(desiredModel));
+
+        verify(proxyClient.client(), never()).publishAppVersion(any(PublishAppVersionRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ImportedStack_RoundTrip() {
+        final App app = TestDataProvider.app();
+        final ResourceModel desiredModel = TestDataProvider.resourceModel(app);
+        desiredModel.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        desiredModel.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desiredModel)
+            .build();
+        // a stack imported on Create is listed under its stack name, as the model names it
+        final ListAppVersionResourceMappingsResponse importedStackResponse = ListAppVersionResourceMappingsResponse.builder()
+            .resourceMappings(TestDataProvider.STACK_ARN_SDK_RESOURCE_MAPPING)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToUpdateAppRequest(desiredModel), proxyClient.client()::updateApp))
+            .thenReturn(UpdateAppResponse.builder().app(app).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToPutDraftAppVersionTemplateRequest(desiredModel),
+            proxyClient.client()::putDraftAppVersionTemplate))
+            .thenReturn(PutDraftAppVersionTemplateResponse.builder().appArn(app.appArn()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(
+            Translator.translateToListAppVersionResourceMappingsRequest(Constants.DRAFT_VERSION, desiredModel),
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(importedStackResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(
+            Translator.translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, desiredModel),
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(importedStackResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToDescribeAppVersionTemplateRequest(desiredModel),
+            proxyClient.client()::describeAppVersionTemplate)).thenReturn(DescribeAppVersionTemplateResponse.builder()
+                .appArn(app.appArn())
+                .appVersion(Constants.RELEASE_VERSION)
+                .appTemplateBody(TestDataProvider.APP_TEMPLATE)
+                .build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToReadAppRequest(desiredModel), proxyClient.client()::describeApp))
+            .thenReturn(TestDataProvider.describeAppResponse(app));
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToListTagsForResourceRequest(desiredModel),
+            proxyClient.client()::listTagsForResource)).thenReturn(ListTagsForResourceResponse.builder().tags(app.tags()).build());
+
+        // Read returns the model unchanged, and Update finds nothing to send
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(desiredModel));
+
+        verify(proxyClient.client(), never()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+        verify(proxyClient.client(), never()).removeDraftAppVersionResourceMappings(any(RemoveDraftAppVersionResourceMappingsRequest.class));
+        verify(proxyClient.client(), never()).publishAppVersion(any(PublishAppVersionRequest.class));
+    }
+
+    @Test
+    public void handleRequest_StreamingMappingDiff() {
+        assertPagedMappingDiff(handler);
+    }
+
+    @Test
+    public void handleRequest_TableMappingDiff() {
+        assertPagedMappingDiff(new UpdateHandler(HandlerSettings.builder().streamingMappingDiff(false).build()));
+    }
+
+    private void assertPagedMappingDiff(final UpdateHandler mappingDiffHandler) {
+        final App app = TestDataProvider.app();
+        final ResourceModel desiredModel = TestDataProvider.resourceModel(app);
+        desiredModel.setAppTemplateBody(TestDataProvider.APP_TEMPLATE);
+        desiredModel.setResourceMappings(
+            Translator.toCfnResourceMappings(ImmutableSet.of(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desiredModel)
+            .build();
+
+        final ListAppVersionResourceMappingsRequest listDraftResourceMappingsRequest = Translator
+            .translateToListAppVersionResourceMappingsRequest(Constants.DRAFT_VERSION, desiredModel);
+        final ListAppVersionResourceMappingsResponse listReleaseResourceMappingsResponse = ListAppVersionResourceMappingsResponse
+            .builder()
+            .resourceMappings(TestDataProvider.CFN_BACKED_SDK_RESOURCE_MAPPING)
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToUpdateAppRequest(desiredModel), proxyClient.client()::updateApp))
+            .thenReturn(UpdateAppResponse.builder().app(app).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToPutDraftAppVersionTemplateRequest(desiredModel),
+            proxyClient.client()::putDraftAppVersionTemplate))
+            .thenReturn(PutDraftAppVersionTemplateResponse.builder().appArn(app.appArn()).build());
+        // the draft mappings arrive in two pages, the native mapping is no longer desired
+        when(proxyClient.injectCredentialsAndInvokeV2(listDraftResourceMappingsRequest, proxyClient.client()::listAppVersionResourceMappings))
+            .thenReturn(ListAppVersionResourceMappingsResponse.builder()
+                .resourceMappings(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING)
+                .nextToken(NEXT_TOKEN)
+                .build());
+        when(proxyClient.injectCredentialsAndInvokeV2(listDraftResourceMappingsRequest.toBuilder().nextToken(NEXT_TOKEN).build(),
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(listReleaseResourceMappingsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(
+            Translator.translateToListAppVersionResourceMappingsRequest(Constants.RELEASE_VERSION, desiredModel),
+            proxyClient.client()::listAppVersionResourceMappings)).thenReturn(listReleaseResourceMappingsResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToDescribeAppVersionTemplateRequest(desiredModel),
+            proxyClient.client()::describeAppVersionTemplate)).thenReturn(DescribeAppVersionTemplateResponse.builder()
+                .appArn(app.appArn())
+                .appVersion(Constants.RELEASE_VERSION)
+                .appTemplateBody(TestDataProvider.APP_TEMPLATE)
+                .build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToReadAppRequest(desiredModel), proxyClient.client()::describeApp))
+            .thenReturn(TestDataProvider.describeAppResponse(app));
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToListTagsForResourceRequest(desiredModel),
+            proxyClient.client()::listTagsForResource)).thenReturn(ListTagsForResourceResponse.builder().tags(app.tags()).build());
+
+        assertThat(mappingDiffHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(desiredModel));
+
+        verify(proxyClient.client()).removeDraftAppVersionResourceMappings(Translator
+            .translateToRemoveDraftAppVersionResourceMappingsRequest(app.appArn(),
+                ImmutableSet.of(TestDataProvider.NATIVE_SDK_RESOURCE_MAPPING)));
+        verify(proxyClient.client(), never()).addDraftAppVersionResourceMappings(any(AddDraftAppVersionResourceMappingsRequest.class));
+    }
 }
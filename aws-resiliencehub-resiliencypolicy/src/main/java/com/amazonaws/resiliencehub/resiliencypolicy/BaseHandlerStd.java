@@ -13,6 +13,18 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
 
+  static final int CALLBACK_DELAY_SECONDS = 1;
+
+  protected final HandlerSettings settings;
+
+  protected BaseHandlerStd() {
+    this(HandlerSettings.DEFAULT);
+  }
+
+  protected BaseHandlerStd(final HandlerSettings settings) {
+    this.settings = settings;
+  }
+
   @Override
   public final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
       final AmazonWebServicesClientProxy proxy,
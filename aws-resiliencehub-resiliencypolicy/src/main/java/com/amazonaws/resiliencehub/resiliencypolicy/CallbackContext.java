@@ -1,12 +1,22 @@
 package com.amazonaws.resiliencehub.resiliencypolicy;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.amazonaws.resiliencehub.common.StagedCallbackContext;
+
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
-public class CallbackContext extends StdCallbackContext {
+public class CallbackContext extends StdCallbackContext implements StagedCallbackContext {
+
+    // see StageEngine
+    private Set<String> completedStages = new LinkedHashSet<>();
+    private int stageRetries;
 
-    private boolean isCreated;
+    // the tags stage of UpdateHandler changed tags, so the policy returned by UpdateResiliencyPolicy is stale
+    private boolean tagsChanged;
 }
@@ -9,14 +9,16 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class CreateHandler extends BaseHandlerStd {
 
-    static final int CALLBACK_DELAY_SECONDS = 1;
-
     private Logger logger;
 
     public CreateHandler() {
         super();
     }
 
+    CreateHandler(final HandlerSettings settings) {
+        super(settings);
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -26,13 +28,10 @@ public class CreateHandler extends BaseHandlerStd {
         final Logger logger) {
 
         this.logger = logger;
+        // malformed models fail here instead of after the first service call
+        ModelValidator.validate(request.getDesiredResourceState());
 
-        // https://github.com/aws-cloudformation/cloudformation-cli-java-plugin/blob/master/src/main/java/software/amazon/cloudformation/proxy/CallChain.java
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress -> createPolicy(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            // Describe call/chain to return the resource model
-            .then(progress -> new ReadHandler()
-                .handleRequest(proxy, request, callbackContext, proxyClient, logger));
+        return createPolicy(proxy, proxyClient, callbackContext, request.getDesiredResourceState());
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> createPolicy(
@@ -40,19 +39,14 @@ public class CreateHandler extends BaseHandlerStd {
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
         final ResourceModel model) {
-        logger.log(String.format("isCreatedFlag: %s", callbackContext.isCreated()));
-        if (callbackContext.isCreated()) {
-            logger.log("AWS::ResilienceHub::ResiliencyPolicy was already created, will not call CreateResiliencyPolicy again.");
-            return ProgressEvent.progress(model, callbackContext);
-        }
         return proxy.initiate("AWS-ResilienceHub-ResiliencyPolicy::Create", proxyClient, model, callbackContext)
             .translateToServiceRequest(Translator::translateToCreateRequest)
             .makeServiceCall(ApiCallsWrapper::createResiliencyPolicy)
             .done(createResiliencyPolicyResponse -> {
-                model.setPolicyArn(createResiliencyPolicyResponse.policy().policyArn());
-                callbackContext.setCreated(true);
                 logger.log(String.format("%s [%s] successfully created.", ResourceModel.TYPE_NAME, model.getPolicyName()));
-                return ProgressEvent.defaultInProgressHandler(callbackContext, CALLBACK_DELAY_SECONDS, model);
+                // the response carries the whole policy, no Describe needed
+                return ProgressEvent.defaultSuccessHandler(
+                    Translator.translateFromResiliencyPolicy(createResiliencyPolicyResponse.policy()));
             });
     }
 }
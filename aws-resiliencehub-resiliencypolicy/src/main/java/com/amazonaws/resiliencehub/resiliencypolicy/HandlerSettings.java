@@ -0,0 +1,20 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+/**
+ * Tunables shared by the AWS::ResilienceHub::ResiliencyPolicy handlers.
+ * The registry instantiates handlers through their no-arg constructors, so deployed handlers always run with
+ * {@link #DEFAULT}. Tests pass their own settings through the package-private handler constructors.
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+class HandlerSettings {
+
+    static final HandlerSettings DEFAULT = HandlerSettings.builder().build();
+
+    /**
+     * Return complete models from List, translated from the ListResiliencyPolicies page, instead of the policyArn only.
+     * Saves callers a Read per listed policy. Disabling it returns models holding only the policyArn.
+     */
+    @lombok.Builder.Default
+    private final boolean fullListModels = true;
+}
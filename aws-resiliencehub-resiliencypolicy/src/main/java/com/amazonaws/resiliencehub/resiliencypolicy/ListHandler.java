@@ -14,6 +14,10 @@ public class ListHandler extends BaseHandlerStd {
         super();
     }
 
+    ListHandler(final HandlerSettings settings) {
+        super(settings);
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -26,10 +30,11 @@ public class ListHandler extends BaseHandlerStd {
             .then(progress ->
                 proxy.initiate("AWS-ResilienceHub-ResiliencyPolicy::list-policies", proxyClient, progress.getResourceModel(),
                     progress.getCallbackContext())
-                    .translateToServiceRequest(model -> Translator.translateToListRequest(request.getNextToken()))
+                    .translateToServiceRequest(model -> Translator.translateToListRequest(model, request.getNextToken()))
                     .makeServiceCall(ApiCallsWrapper::listResiliencyPolicies)
                     .done(listResiliencyPolicyResponse -> ProgressEvent.<ResourceModel, CallbackContext>builder()
-                        .resourceModels(Translator.translateFromListResponse(listResiliencyPolicyResponse))
+                        .resourceModels(Translator.translateFromListResponse(listResiliencyPolicyResponse,
+                            settings.isFullListModels()))
                         .status(OperationStatus.SUCCESS)
                         .nextToken(listResiliencyPolicyResponse.nextToken())
                         .build()));
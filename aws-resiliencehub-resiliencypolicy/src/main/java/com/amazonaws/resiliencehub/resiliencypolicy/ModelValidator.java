@@ -0,0 +1,67 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import software.amazon.awssdk.services.resiliencehub.model.DataLocationConstraint;
+import software.amazon.awssdk.services.resiliencehub.model.DisruptionType;
+import software.amazon.awssdk.services.resiliencehub.model.ResiliencyPolicyTier;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+/**
+ * Checks a desired ResiliencyPolicy model before the first ResilienceHub call, so that malformed models fail within
+ * milliseconds. The checks mirror the resource schema and the assumptions of {@link Translator}, which would otherwise
+ * turn an unknown disruption type into an unusable request.
+ */
+final class ModelValidator {
+
+    // pattern of the resource schema
+    private static final Pattern POLICY_NAME = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9_\\-]{1,59}$");
+
+    // prevent instantiation
+    private ModelValidator() {
+    }
+
+    /**
+     * @param model desired resource model of a Create or Update request
+     * @throws CfnInvalidRequestException naming the first invalid property
+     */
+    static void validate(final ResourceModel model) {
+        if (model == null) {
+            throw new CfnInvalidRequestException("Resource model is required.");
+        }
+        if (model.getPolicyName() != null && !POLICY_NAME.matcher(model.getPolicyName()).matches()) {
+            throw invalid("PolicyName [%s] does not match %s.", model.getPolicyName(), POLICY_NAME.pattern());
+        }
+        if (model.getTier() != null && !isKnown(ResiliencyPolicyTier.fromValue(model.getTier()))) {
+            throw invalid("Tier [%s] is not supported.", model.getTier());
+        }
+        if (model.getDataLocationConstraint() != null
+            && !isKnown(DataLocationConstraint.fromValue(model.getDataLocationConstraint()))) {
+            throw invalid("DataLocationConstraint [%s] is not supported.", model.getDataLocationConstraint());
+        }
+        if (model.getPolicy() == null) {
+            throw invalid("Policy is required.");
+        }
+        for (final Map.Entry<String, FailurePolicy> entry : model.getPolicy().entrySet()) {
+            if (!isKnown(DisruptionType.fromValue(entry.getKey()))) {
+                throw invalid("Policy key [%s] is not one of Software, Hardware, AZ or Region.", entry.getKey());
+            }
+            final FailurePolicy failurePolicy = entry.getValue();
+            if (failurePolicy == null || failurePolicy.getRtoInSecs() == null || failurePolicy.getRpoInSecs() == null) {
+                throw invalid("Policy [%s] requires RtoInSecs and RpoInSecs.", entry.getKey());
+            }
+            if (failurePolicy.getRtoInSecs() < 0 || failurePolicy.getRpoInSecs() < 0) {
+                throw invalid("Policy [%s] must not have negative RtoInSecs or RpoInSecs.", entry.getKey());
+            }
+        }
+    }
+
+    private static boolean isKnown(final Enum<?> value) {
+        return value != null && !"UNKNOWN_TO_SDK_VERSION".equals(value.name());
+    }
+
+    private static CfnInvalidRequestException invalid(final String format, final Object... args) {
+        return new CfnInvalidRequestException(String.format(format, args));
+    }
+}
@@ -0,0 +1,61 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the previous and the desired ResiliencyPolicy model of an Update, so that UpdateHandler only calls the
+ * service for the parts that changed. A missing previous model counts as changed.
+ */
+final class PolicyComparator {
+
+    // prevent instantiation
+    private PolicyComparator() {
+    }
+
+    /**
+     * @param previous previous resource model, may be null
+     * @param desired desired resource model
+     * @return true if name, description, tier, data location constraint and failure policies are unchanged
+     */
+    static boolean isPolicyUnchanged(final ResourceModel previous, final ResourceModel desired) {
+        return previous != null
+            && Objects.equals(previous.getPolicyName(), desired.getPolicyName())
+            && Objects.equals(previous.getPolicyDescription(), desired.getPolicyDescription())
+            && Objects.equals(previous.getTier(), desired.getTier())
+            && Objects.equals(previous.getDataLocationConstraint(), desired.getDataLocationConstraint())
+            && sameFailurePolicies(previous.getPolicy(), desired.getPolicy());
+    }
+
+    /**
+     * @param previous previous resource model, may be null
+     * @param desired desired resource model
+     * @return true if the tags are unchanged, no tags and an empty tag map are the same
+     */
+    static boolean areTagsUnchanged(final ResourceModel previous, final ResourceModel desired) {
+        return previous != null && orEmpty(previous.getTags()).equals(orEmpty(desired.getTags()));
+    }
+
+    private static boolean sameFailurePolicies(final Map<String, FailurePolicy> previous,
+        final Map<String, FailurePolicy> desired) {
+        final Map<String, FailurePolicy> previousPolicies = orEmpty(previous);
+        final Map<String, FailurePolicy> desiredPolicies = orEmpty(desired);
+        if (!previousPolicies.keySet().equals(desiredPolicies.keySet())) {
+            return false;
+        }
+        for (final Map.Entry<String, FailurePolicy> entry : desiredPolicies.entrySet()) {
+            final FailurePolicy previousPolicy = previousPolicies.get(entry.getKey());
+            if (previousPolicy == null || entry.getValue() == null
+                || !Objects.equals(previousPolicy.getRtoInSecs(), entry.getValue().getRtoInSecs())
+                || !Objects.equals(previousPolicy.getRpoInSecs(), entry.getValue().getRpoInSecs())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K, V> Map<K, V> orEmpty(final Map<K, V> map) {
+        return map != null ? map : Collections.emptyMap();
+    }
+}
@@ -1,7 +1,11 @@
 package com.amazonaws.resiliencehub.resiliencypolicy;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -16,7 +20,9 @@ import software.amazon.awssdk.services.resiliencehub.model.DescribeResiliencyPol
 import software.amazon.awssdk.services.resiliencehub.model.DisruptionType;
 import software.amazon.awssdk.services.resiliencehub.model.ListResiliencyPoliciesRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListResiliencyPoliciesResponse;
+import software.amazon.awssdk.services.resiliencehub.model.ResiliencyPolicy;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateResiliencyPolicyRequest;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 
 /**
  * This class is a centralized placeholder for
@@ -27,6 +33,9 @@ import software.amazon.awssdk.services.resiliencehub.model.UpdateResiliencyPolic
 
 public class Translator {
 
+    // known disruption types by their value, UNKNOWN_TO_SDK_VERSION is left out
+    private static final Map<String, DisruptionType> DISRUPTION_TYPES = disruptionTypesByValue();
+
     /**
      * Request to create a resource
      *
@@ -64,14 +73,24 @@ public class Translator {
      */
     static ResourceModel translateFromReadResponse(final DescribeResiliencyPolicyResponse awsResponse) {
         // e.g. https://github.com/aws-cloudformation/aws-cloudformation-resource-providers-logs/blob/2077c92299aeb9a68ae8f4418b5e932b12a8b186/aws-logs-loggroup/src/main/java/com/aws/logs/loggroup/Translator.java#L58-L73
+        return translateFromResiliencyPolicy(awsResponse.policy());
+    }
+
+    /**
+     * Translates a resiliency policy from sdk into a complete resource model
+     *
+     * @param resiliencyPolicy resiliency policy as returned by Describe or List
+     * @return model resource model
+     */
+    static ResourceModel translateFromResiliencyPolicy(final ResiliencyPolicy resiliencyPolicy) {
         return ResourceModel.builder()
-            .policyName(awsResponse.policy().policyName())
-            .policyDescription(awsResponse.policy().policyDescription())
-            .policyArn(awsResponse.policy().policyArn())
-            .dataLocationConstraint(awsResponse.policy().dataLocationConstraintAsString())
-            .tier(awsResponse.policy().tierAsString())
-            .policy(toResourceModel(awsResponse.policy().policy()))
-            .tags(awsResponse.policy().tags())
+            .policyName(resiliencyPolicy.policyName())
+            .policyDescription(resiliencyPolicy.policyDescription())
+            .policyArn(resiliencyPolicy.policyArn())
+            .dataLocationConstraint(resiliencyPolicy.dataLocationConstraintAsString())
+            .tier(resiliencyPolicy.tierAsString())
+            .policy(toResourceModel(resiliencyPolicy.policy()))
+            .tags(resiliencyPolicy.tags())
             .build();
     }
 
@@ -105,27 +124,32 @@ public class Translator {
     }
 
     /**
-     * Request to list resources
+     * Request to list resources, filtered by the policyName of the given model when it is set
      *
+     * @param model resource model carrying the filter, may be null
      * @param nextToken token passed to the aws service list resources request
      * @return awsRequest the aws service request to list resources within aws account
      */
-    static ListResiliencyPoliciesRequest translateToListRequest(final String nextToken) {
+    static ListResiliencyPoliciesRequest translateToListRequest(final ResourceModel model, final String nextToken) {
         return ListResiliencyPoliciesRequest.builder()
+            .policyName(model != null ? StringUtils.defaultIfEmpty(model.getPolicyName(), null) : null)
             .nextToken(nextToken)
             .build();
     }
 
     /**
-     * Translates resource objects from sdk into a resource model (primary identifier only)
+     * Translates resource objects from sdk into resource models. ListResiliencyPolicies returns the same policy
+     * attributes as DescribeResiliencyPolicy, so complete models cost no extra call.
      *
-     * @param awsResponse the aws service describe resource response
+     * @param awsResponse the aws service list resources response
+     * @param fullModels translate all attributes instead of the primary identifier only
      * @return list of resource models
      */
-    static List<ResourceModel> translateFromListResponse(final ListResiliencyPoliciesResponse awsResponse) {
+    static List<ResourceModel> translateFromListResponse(final ListResiliencyPoliciesResponse awsResponse,
+        final boolean fullModels) {
         // e.g. https://github.com/aws-cloudformation/aws-cloudformation-resource-providers-logs/blob/2077c92299aeb9a68ae8f4418b5e932b12a8b186/aws-logs-loggroup/src/main/java/com/aws/logs/loggroup/Translator.java#L75-L82
         return streamOfOrEmpty(awsResponse.resiliencyPolicies())
-            .map(resource -> ResourceModel.builder()
+            .map(resource -> fullModels ? translateFromResiliencyPolicy(resource) : ResourceModel.builder()
                 // include only primary identifier
                 .policyArn(resource.policyArn())
                 .build())
@@ -138,12 +162,26 @@ public class Translator {
             .orElseGet(Stream::empty);
     }
 
+    /**
+     * Translates the failure policies of a resource model into the sdk representation. Keys are resolved through a
+     * lookup table built once from the known disruption types, so an unknown key fails here instead of at the service,
+     * even when the model did not pass through {@link ModelValidator}.
+     *
+     * @param policy failure policies keyed by disruption type
+     * @return failure policies keyed by disruption type, in disruption type order
+     * @throws CfnInvalidRequestException if a key is not a known disruption type
+     */
     static Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> fromResourceModel(
         final Map<String, FailurePolicy> policy) {
-        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policyMap = new HashMap<>();
-
-        for (final Entry<String, FailurePolicy>  entry : policy.entrySet()) {
-            policyMap.put(DisruptionType.fromValue(entry.getKey()), software.amazon.awssdk.services.resiliencehub.model.FailurePolicy.builder()
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policyMap =
+            new EnumMap<>(DisruptionType.class);
+        for (final Entry<String, FailurePolicy> entry : policy.entrySet()) {
+            final DisruptionType disruptionType = DISRUPTION_TYPES.get(entry.getKey());
+            if (disruptionType == null) {
+                throw new CfnInvalidRequestException(String.format("Policy key [%s] is not one of %s.", entry.getKey(),
+                    DISRUPTION_TYPES.keySet()));
+            }
+            policyMap.put(disruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy.builder()
                 .rpoInSecs(entry.getValue().getRpoInSecs())
                 .rtoInSecs(entry.getValue().getRtoInSecs())
                 .build());
@@ -151,10 +189,25 @@ public class Translator {
         return policyMap;
     }
 
+    /**
+     * Translates the failure policies returned by the service into the resource model representation. The service
+     * response is walked through an EnumMap, so the model lists the failure policies in disruption type order.
+     *
+     * @param policy failure policies keyed by disruption type
+     * @return failure policies keyed by the disruption type value, in disruption type order
+     */
     static Map<String, FailurePolicy> toResourceModel(
         final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policy) {
-        final Map<String, FailurePolicy> policyMap = new HashMap<>();
-        for (final Entry<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> entry : policy.entrySet()) {
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> sdkPolicyMap;
+        if (policy instanceof EnumMap) {
+            sdkPolicyMap = policy;
+        } else {
+            sdkPolicyMap = new EnumMap<>(DisruptionType.class);
+            sdkPolicyMap.putAll(policy);
+        }
+        final Map<String, FailurePolicy> policyMap = new LinkedHashMap<>();
+        for (final Entry<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> entry
+            : sdkPolicyMap.entrySet()) {
             policyMap.put(entry.getKey().toString(), FailurePolicy.builder()
                 .rpoInSecs(entry.getValue().rpoInSecs())
                 .rtoInSecs(entry.getValue().rtoInSecs())
@@ -162,4 +215,12 @@ public class Translator {
         }
         return policyMap;
     }
+
+    private static Map<String, DisruptionType> disruptionTypesByValue() {
+        final Map<String, DisruptionType> disruptionTypes = new LinkedHashMap<>();
+        for (final DisruptionType disruptionType : DisruptionType.knownValues()) {
+            disruptionTypes.put(disruptionType.toString(), disruptionType);
+        }
+        return Collections.unmodifiableMap(disruptionTypes);
+    }
 }
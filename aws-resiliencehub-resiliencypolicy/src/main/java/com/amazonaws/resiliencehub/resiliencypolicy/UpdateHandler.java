@@ -1,5 +1,8 @@
 package com.amazonaws.resiliencehub.resiliencypolicy;
 
+import java.util.Map;
+
+import com.amazonaws.resiliencehub.common.StageEngine;
 import com.amazonaws.resiliencehub.common.TaggingUtil;
 
 import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
@@ -11,6 +14,10 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class UpdateHandler extends BaseHandlerStd {
 
+    static final String UPDATE_POLICY = "update-policy";
+    static final String TAGS = "tags";
+    static final String READ = "read";
+
     private Logger logger;
 
     public UpdateHandler() {
@@ -26,13 +33,34 @@ public class UpdateHandler extends BaseHandlerStd {
         final Logger logger) {
 
         this.logger = logger;
+        // malformed models fail here instead of after the first service call
+        ModelValidator.validate(request.getDesiredResourceState());
+
+        // stages without a change against the previous model skip their service calls
+        final boolean policyUnchanged = PolicyComparator.isPolicyUnchanged(request.getPreviousResourceState(),
+            request.getDesiredResourceState());
+        final boolean tagsUnchanged = PolicyComparator.areTagsUnchanged(request.getPreviousResourceState(),
+            request.getDesiredResourceState());
+        logger.log(String.format("Update of %s [%s]: %s %s, %s %s.", ResourceModel.TYPE_NAME,
+            request.getDesiredResourceState().getPolicyName(), UPDATE_POLICY, policyUnchanged ? "skipped" : "runs",
+            TAGS, tagsUnchanged ? "skipped" : "runs"));
 
-        // https://github.com/aws-cloudformation/cloudformation-cli-java-plugin/blob/master/src/main/java/software/amazon/cloudformation/proxy/CallChain.java
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress -> updatePolicy(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> updateTags(proxy, proxyClient, progress.getCallbackContext(), progress.getResourceModel()))
-            .then(progress -> new ReadHandler()
-                .handleRequest(proxy, request, callbackContext, proxyClient, logger));
+        return StageEngine.<ResourceModel, CallbackContext>builder(logger)
+            .stage(UPDATE_POLICY, (model, context) -> policyUnchanged
+                ? ProgressEvent.progress(model, context)
+                : updatePolicy(proxy, proxyClient, context, model))
+            // the model from UpdateResiliencyPolicy carries the current tags, the desired ones come from the request
+            .stage(TAGS, (model, context) -> tagsUnchanged
+                ? ProgressEvent.progress(model, context)
+                : updateTags(proxyClient, context, model, request.getDesiredResourceState().getTags()), UPDATE_POLICY)
+            // the model comes from the UpdateResiliencyPolicy response, or is the desired one when the policy is unchanged,
+            // only changed tags need a Describe
+            .stage(READ, (model, context) -> context.isTagsChanged()
+                ? new ReadHandler().handleRequest(proxy, request, context, proxyClient, logger)
+                : ProgressEvent.defaultSuccessHandler(model), TAGS)
+            .callbackDelaySeconds(CALLBACK_DELAY_SECONDS)
+            .build()
+            .run(request.getDesiredResourceState(), callbackContext);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> updatePolicy(
@@ -44,19 +72,19 @@ public class UpdateHandler extends BaseHandlerStd {
             .translateToServiceRequest(Translator::translateToUpdateRequest)
             .makeServiceCall(ApiCallsWrapper::updateResiliencyPolicy)
             .done(updateResiliencyPolicyResponse -> {
-                model.setPolicyArn(updateResiliencyPolicyResponse.policy().policyArn());
                 logger.log(String.format("%s [%s] successfully Updated.", ResourceModel.TYPE_NAME, model.getPolicyName()));
-                return ProgressEvent.progress(model, callbackContext);
+                return ProgressEvent.progress(
+                    Translator.translateFromResiliencyPolicy(updateResiliencyPolicyResponse.policy()), callbackContext);
             });
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> updateTags(
-        final AmazonWebServicesClientProxy proxy,
         final ProxyClient<ResiliencehubClient> proxyClient,
         final CallbackContext callbackContext,
-        final ResourceModel model) {
+        final ResourceModel model,
+        final Map<String, String> desiredTags) {
 
-        TaggingUtil.updateTags(model.getPolicyArn(), model.getTags(), proxyClient);
+        callbackContext.setTagsChanged(TaggingUtil.updateTags(model.getPolicyArn(), desiredTags, proxyClient));
         logger.log(String.format("Successfully updated tags for resiliency policy [%s]. This completes the Update for resourceType %s.",
             model.getPolicyName(), ResourceModel.TYPE_NAME));
         return ProgressEvent.progress(model, callbackContext);
@@ -14,7 +14,6 @@ import software.amazon.awssdk.services.resiliencehub.ResiliencehubClient;
 import software.amazon.awssdk.services.resiliencehub.model.CreateResiliencyPolicyRequest;
 import software.amazon.awssdk.services.resiliencehub.model.CreateResiliencyPolicyResponse;
 import software.amazon.awssdk.services.resiliencehub.model.DescribeResiliencyPolicyRequest;
-import software.amazon.awssdk.services.resiliencehub.model.DescribeResiliencyPolicyResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ResiliencyPolicy;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -22,9 +21,9 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,49 +50,38 @@ public class CreateHandlerTest extends AbstractTestBase {
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .build();
+        final ResiliencyPolicy resiliencyPolicy = TestDataProvider.getResiliencyPolicy();
+        final ResourceModel createdModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy);
 
-        final ResiliencyPolicy resiliencyPolicy =
-            TestDataProvider.getResiliencyPolicy();
-
-        final CreateResiliencyPolicyRequest createResiliencyPolicyRequest = Translator.translateToCreateRequest(model);
-        final CreateResiliencyPolicyResponse createResiliencyPolicyResponse = CreateResiliencyPolicyResponse.builder()
-            .policy(resiliencyPolicy)
-            .build();
-
-        when(proxyClient.injectCredentialsAndInvokeV2(createResiliencyPolicyRequest, proxyClient.client()::createResiliencyPolicy))
-            .thenReturn(createResiliencyPolicyResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToCreateRequest(model),
+            proxyClient.client()::createResiliencyPolicy))
+            .thenReturn(CreateResiliencyPolicyResponse.builder().policy(resiliencyPolicy).build());
 
-        final CallbackContext context = new CallbackContext();
-        final ProgressEvent<ResourceModel, CallbackContext> actualResponse = handler
-            .handleRequest(proxy, request, context, proxyClient, logger);
-        context.setCreated(true);
-        model.setPolicyArn(resiliencyPolicy.policyArn());
-        assertEquals(ProgressEvent.defaultInProgressHandler(context, CreateHandler.CALLBACK_DELAY_SECONDS, model), actualResponse);
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(createdModel));
+        verify(proxyClient.client(), never()).describeResiliencyPolicy(any(DescribeResiliencyPolicyRequest.class));
     }
 
     @Test
-    public void handleRequest_SimpleSuccess_retriedAfterCallbackDelay_PolicyCreated() {
-        final ResiliencyPolicy resiliencyPolicy = TestDataProvider.getResiliencyPolicy();
-        final ResourceModel model = TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy);
+    public void handleRequest_RetriedWithSameContext_PolicyCreated() {
+        final ResourceModel model = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .build();
+        final ResiliencyPolicy resiliencyPolicy = TestDataProvider.getResiliencyPolicy();
+        final ResourceModel createdModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy);
+        final CreateResiliencyPolicyRequest createRequest = Translator.translateToCreateRequest(model);
 
-        // Read handler invoked in the Create handler at the end.
-        final DescribeResiliencyPolicyRequest describeResiliencyPolicyRequest = Translator.translateToReadRequest(model);
-        final DescribeResiliencyPolicyResponse describeResiliencyPolicyResponse = DescribeResiliencyPolicyResponse.builder()
-            .policy(resiliencyPolicy)
-            .build();
-
-        when(proxyClient.injectCredentialsAndInvokeV2(describeResiliencyPolicyRequest, proxyClient.client()::describeResiliencyPolicy))
-            .thenReturn(describeResiliencyPolicyResponse);
+        when(proxyClient.injectCredentialsAndInvokeV2(createRequest, proxyClient.client()::createResiliencyPolicy))
+            .thenReturn(CreateResiliencyPolicyResponse.builder().policy(resiliencyPolicy).build());
 
         final CallbackContext context = new CallbackContext();
-        context.setCreated(true);
+        handler.handleRequest(proxy, request, context, proxyClient, logger);
         assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
-            .isEqualTo(ProgressEvent.defaultSuccessHandler(model));
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(createdModel));
 
-        // ResiliencyPolicy was already created and context.isCreated=true
-        verify(proxyClient.client(), never()).createResiliencyPolicy(any(CreateResiliencyPolicyRequest.class));
+        // the call chain memoized the CreateResiliencyPolicy response in the callback context
+        verify(proxyClient.client(), times(1)).createResiliencyPolicy(createRequest);
+        verify(proxyClient.client(), never()).describeResiliencyPolicy(any(DescribeResiliencyPolicyRequest.class));
     }
 }
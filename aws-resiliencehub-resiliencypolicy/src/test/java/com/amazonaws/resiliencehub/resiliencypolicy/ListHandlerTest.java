@@ -54,7 +54,9 @@ public class ListHandlerTest extends AbstractTestBase {
         final ResiliencyPolicy resiliencyPolicy =
             TestDataProvider.getResiliencyPolicy();
 
-        final ListResiliencyPoliciesRequest listResiliencyPoliciesRequest = Translator.translateToListRequest(null);
+        final ListResiliencyPoliciesRequest listResiliencyPoliciesRequest = ListResiliencyPoliciesRequest.builder()
+            .policyName(model.getPolicyName())
+            .build();
         final ListResiliencyPoliciesResponse listResiliencyPoliciesResponse = ListResiliencyPoliciesResponse.builder()
             .resiliencyPolicies(ImmutableList.of(resiliencyPolicy))
             .nextToken(NEXT_TOKEN)
@@ -65,7 +67,8 @@ public class ListHandlerTest extends AbstractTestBase {
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.builder()
-                .resourceModels(Collections.singletonList(buildExpectedResourceModel(resiliencyPolicy)))
+                .resourceModels(Collections.singletonList(
+                    TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy)))
                 .status(OperationStatus.SUCCESS)
                 .nextToken(NEXT_TOKEN)
                 .build());
@@ -73,12 +76,11 @@ public class ListHandlerTest extends AbstractTestBase {
 
     @Test
     public void handleRequest_noPoliciesPresent() {
-        final ResourceModel model = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
-            .desiredResourceState(model)
+            .desiredResourceState(ResourceModel.builder().build())
             .build();
 
-        final ListResiliencyPoliciesRequest listResiliencyPoliciesRequest = Translator.translateToListRequest(null);
+        final ListResiliencyPoliciesRequest listResiliencyPoliciesRequest = Translator.translateToListRequest(null, null);
         final ListResiliencyPoliciesResponse listResiliencyPoliciesResponse = ListResiliencyPoliciesResponse.builder()
             .resiliencyPolicies(ImmutableList.of())
             .build();
@@ -93,6 +95,29 @@ public class ListHandlerTest extends AbstractTestBase {
                 .build());
     }
 
+    @Test
+    public void handleRequest_arnOnlyListModels() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+
+        final ResiliencyPolicy resiliencyPolicy = TestDataProvider.getResiliencyPolicy();
+        final ListResiliencyPoliciesRequest listResiliencyPoliciesRequest = Translator.translateToListRequest(null, null);
+        final ListResiliencyPoliciesResponse listResiliencyPoliciesResponse = ListResiliencyPoliciesResponse.builder()
+            .resiliencyPolicies(ImmutableList.of(resiliencyPolicy))
+            .build();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(listResiliencyPoliciesRequest, proxyClient.client()::listResiliencyPolicies))
+            .thenReturn(listResiliencyPoliciesResponse);
+
+        final ListHandler arnOnlyHandler = new ListHandler(HandlerSettings.builder().fullListModels(false).build());
+        assertThat(arnOnlyHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.builder()
+                .resourceModels(Collections.singletonList(buildExpectedResourceModel(resiliencyPolicy)))
+                .status(OperationStatus.SUCCESS)
+                .build());
+    }
+
     private ResourceModel buildExpectedResourceModel(final ResiliencyPolicy resiliencyPolicy) {
         return ResourceModel.builder()
             .policyArn(resiliencyPolicy.policyArn())
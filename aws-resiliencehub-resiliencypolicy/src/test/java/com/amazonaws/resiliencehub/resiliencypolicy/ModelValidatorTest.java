@@ -0,0 +1,65 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ModelValidatorTest {
+
+    @Test
+    public void testValidate() {
+        ModelValidator.validate(TestDataProvider.getResourceModelWithoutResiliencyPolicyArn());
+    }
+
+    @Test
+    public void testValidate_invalidPolicyName() {
+        final ResourceModel model = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        model.setPolicyName("policy name");
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    @Test
+    public void testValidate_unknownTierAndDataLocationConstraint() {
+        final ResourceModel unknownTier = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        unknownTier.setTier("Unimportant");
+        final ResourceModel unknownDataLocationConstraint = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        unknownDataLocationConstraint.setDataLocationConstraint("SameCity");
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(unknownTier));
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(unknownDataLocationConstraint));
+    }
+
+    @Test
+    public void testValidate_badDisruptionTypeKey() {
+        final ResourceModel model = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        final Map<String, FailurePolicy> policy = new HashMap<>(model.getPolicy());
+        policy.put("Az", FailurePolicy.builder().rtoInSecs(1).rpoInSecs(1).build());
+        model.setPolicy(policy);
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(model));
+    }
+
+    @Test
+    public void testValidate_incompleteFailurePolicy() {
+        final ResourceModel missingRpo = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        final Map<String, FailurePolicy> policy = new HashMap<>();
+        policy.put(TestDataProvider.DISRUPTION_TYPE, FailurePolicy.builder().rtoInSecs(1).build());
+        missingRpo.setPolicy(policy);
+        final ResourceModel negativeRto = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        final Map<String, FailurePolicy> negativePolicy = new HashMap<>();
+        negativePolicy.put(TestDataProvider.DISRUPTION_TYPE, FailurePolicy.builder().rtoInSecs(-1).rpoInSecs(1).build());
+        negativeRto.setPolicy(negativePolicy);
+        final ResourceModel missingPolicy = TestDataProvider.getResourceModelWithoutResiliencyPolicyArn();
+        missingPolicy.setPolicy(null);
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(missingRpo));
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(negativeRto));
+        assertThrows(CfnInvalidRequestException.class, () -> ModelValidator.validate(missingPolicy));
+    }
+}
@@ -0,0 +1,61 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PolicyComparatorTest {
+
+    @Test
+    public void testIsPolicyUnchanged() {
+        final ResourceModel desired = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+
+        assertFalse(PolicyComparator.isPolicyUnchanged(null, desired));
+        assertTrue(PolicyComparator.isPolicyUnchanged(TestDataProvider.getResourceModelWithResiliencyPolicyArn(), desired));
+
+        // failure policies are compared by value, not by map implementation
+        final ResourceModel previous = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        previous.setPolicy(new HashMap<>(TestDataProvider.getPolicyMap()));
+        assertTrue(PolicyComparator.isPolicyUnchanged(previous, desired));
+
+        previous.setPolicyDescription("changed");
+        assertFalse(PolicyComparator.isPolicyUnchanged(previous, desired));
+    }
+
+    @Test
+    public void testIsPolicyUnchanged_failurePolicyChanged() {
+        final ResourceModel desired = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final ResourceModel previous = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final Map<String, FailurePolicy> policy = new HashMap<>();
+        for (final Map.Entry<String, FailurePolicy> entry : TestDataProvider.getPolicyMap().entrySet()) {
+            policy.put(entry.getKey(), FailurePolicy.builder()
+                .rtoInSecs(entry.getValue().getRtoInSecs())
+                .rpoInSecs(entry.getValue().getRpoInSecs() + 1)
+                .build());
+        }
+        previous.setPolicy(policy);
+
+        assertFalse(PolicyComparator.isPolicyUnchanged(previous, desired));
+        previous.setPolicy(Collections.emptyMap());
+        assertFalse(PolicyComparator.isPolicyUnchanged(previous, desired));
+    }
+
+    @Test
+    public void testAreTagsUnchanged() {
+        final ResourceModel desired = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final ResourceModel previous = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+
+        assertFalse(PolicyComparator.areTagsUnchanged(null, desired));
+        assertTrue(PolicyComparator.areTagsUnchanged(previous, desired));
+
+        previous.setTags(null);
+        assertFalse(PolicyComparator.areTagsUnchanged(previous, desired));
+        desired.setTags(Collections.emptyMap());
+        assertTrue(PolicyComparator.areTagsUnchanged(previous, desired));
+    }
+}
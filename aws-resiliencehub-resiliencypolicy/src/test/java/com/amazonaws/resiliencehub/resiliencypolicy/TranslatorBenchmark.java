@@ -0,0 +1,101 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableMap;
+
+import software.amazon.awssdk.services.resiliencehub.model.CreateResiliencyPolicyRequest;
+import software.amazon.awssdk.services.resiliencehub.model.DisruptionType;
+import software.amazon.awssdk.services.resiliencehub.model.UpdateResiliencyPolicyRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the EnumMap failure policy translation of {@link Translator} with the HashMap translation it replaced, for
+ * the conversions of Create, Update and Read. Not part of the unit tests: surefire only picks it up in the benchmark
+ * profile, {@code mvn -P benchmark test}. Every conversion runs in warmup rounds before the measured rounds, and the
+ * average time per conversion is printed. Nothing is asserted on the timings, they depend on the machine.
+ */
+public class TranslatorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int CONVERSIONS_PER_ROUND = 100_000;
+
+    private static final Map<String, FailurePolicy> POLICY = ImmutableMap.of(
+        "Software", FailurePolicy.builder().rtoInSecs(10).rpoInSecs(20).build(),
+        "Hardware", FailurePolicy.builder().rtoInSecs(30).rpoInSecs(40).build(),
+        "AZ", FailurePolicy.builder().rtoInSecs(50).rpoInSecs(60).build(),
+        "Region", FailurePolicy.builder().rtoInSecs(70).rpoInSecs(80).build());
+
+    @Test
+    public void benchmarkPolicyConversions() {
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> sdkPolicy =
+            Translator.fromResourceModel(POLICY);
+        // both translations have to agree before their timings mean anything
+        assertEquals(baselineFromResourceModel(POLICY), sdkPolicy);
+        assertEquals(baselineToResourceModel(sdkPolicy), Translator.toResourceModel(sdkPolicy));
+
+        report("create", () -> CreateResiliencyPolicyRequest.builder().policy(Translator.fromResourceModel(POLICY)).build(),
+            () -> CreateResiliencyPolicyRequest.builder().policy(baselineFromResourceModel(POLICY)).build());
+        report("update", () -> UpdateResiliencyPolicyRequest.builder().policy(Translator.fromResourceModel(POLICY)).build(),
+            () -> UpdateResiliencyPolicyRequest.builder().policy(baselineFromResourceModel(POLICY)).build());
+        report("read", () -> Translator.toResourceModel(sdkPolicy), () -> baselineToResourceModel(sdkPolicy));
+    }
+
+    private static void report(final String conversion, final Supplier<?> enumMap, final Supplier<?> hashMap) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            nanosPerConversion(enumMap);
+            nanosPerConversion(hashMap);
+        }
+        long enumMapNanos = 0;
+        long hashMapNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            enumMapNanos += nanosPerConversion(enumMap);
+            hashMapNanos += nanosPerConversion(hashMap);
+        }
+        System.out.printf("%s: EnumMap %d ns, HashMap %d ns per conversion%n", conversion,
+            enumMapNanos / MEASURED_ROUNDS, hashMapNanos / MEASURED_ROUNDS);
+    }
+
+    private static long nanosPerConversion(final Supplier<?> conversion) {
+        // the results are kept, so that the JIT cannot drop the conversions
+        final Object[] results = new Object[CONVERSIONS_PER_ROUND];
+        final long start = System.nanoTime();
+        for (int i = 0; i < CONVERSIONS_PER_ROUND; i++) {
+            results[i] = conversion.get();
+        }
+        final long nanos = System.nanoTime() - start;
+        assertEquals(results[0], results[CONVERSIONS_PER_ROUND - 1]);
+        return nanos / CONVERSIONS_PER_ROUND;
+    }
+
+    // HashMap based translation the EnumMap one replaced
+    private static Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> baselineFromResourceModel(
+        final Map<String, FailurePolicy> policy) {
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policyMap = new HashMap<>();
+        for (final Map.Entry<String, FailurePolicy> entry : policy.entrySet()) {
+            policyMap.put(DisruptionType.fromValue(entry.getKey()), software.amazon.awssdk.services.resiliencehub.model.FailurePolicy.builder()
+                .rpoInSecs(entry.getValue().getRpoInSecs())
+                .rtoInSecs(entry.getValue().getRtoInSecs())
+                .build());
+        }
+        return policyMap;
+    }
+
+    private static Map<String, FailurePolicy> baselineToResourceModel(
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policy) {
+        final Map<String, FailurePolicy> policyMap = new HashMap<>();
+        for (final Map.Entry<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> entry : policy.entrySet()) {
+            policyMap.put(entry.getKey().toString(), FailurePolicy.builder()
+                .rpoInSecs(entry.getValue().rpoInSecs())
+                .rtoInSecs(entry.getValue().rtoInSecs())
+                .build());
+        }
+        return policyMap;
+    }
+}
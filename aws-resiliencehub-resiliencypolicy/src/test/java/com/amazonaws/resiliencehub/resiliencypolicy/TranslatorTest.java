@@ -0,0 +1,74 @@
+package com.amazonaws.resiliencehub.resiliencypolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+
+import software.amazon.awssdk.services.resiliencehub.model.DisruptionType;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TranslatorTest {
+
+    private static final Map<String, FailurePolicy> ALL_DISRUPTION_TYPES = ImmutableMap.of(
+        "Software", FailurePolicy.builder().rtoInSecs(10).rpoInSecs(20).build(),
+        "Hardware", FailurePolicy.builder().rtoInSecs(30).rpoInSecs(40).build(),
+        "AZ", FailurePolicy.builder().rtoInSecs(50).rpoInSecs(60).build(),
+        "Region", FailurePolicy.builder().rtoInSecs(70).rpoInSecs(80).build());
+
+    @Test
+    public void testFromResourceModel() {
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policy =
+            Translator.fromResourceModel(ALL_DISRUPTION_TYPES);
+
+        assertTrue(policy instanceof EnumMap);
+        assertEquals(ImmutableMap.of(
+            DisruptionType.SOFTWARE, failurePolicy(10, 20),
+            DisruptionType.HARDWARE, failurePolicy(30, 40),
+            DisruptionType.AZ, failurePolicy(50, 60),
+            DisruptionType.REGION, failurePolicy(70, 80)), policy);
+        assertEquals(ALL_DISRUPTION_TYPES, Translator.toResourceModel(policy));
+    }
+
+    @Test
+    public void testFromResourceModel_unknownDisruptionType() {
+        final CfnInvalidRequestException e = assertThrows(CfnInvalidRequestException.class,
+            () -> Translator.fromResourceModel(ImmutableMap.of("Datacenter", FailurePolicy.builder()
+                .rtoInSecs(1)
+                .rpoInSecs(1)
+                .build())));
+        assertTrue(e.getMessage().contains("Datacenter"));
+    }
+
+    @Test
+    public void testToResourceModel_disruptionTypeOrder() {
+        final Map<DisruptionType, software.amazon.awssdk.services.resiliencehub.model.FailurePolicy> policy = new HashMap<>();
+        policy.put(DisruptionType.REGION, failurePolicy(70, 80));
+        policy.put(DisruptionType.AZ, failurePolicy(50, 60));
+        policy.put(DisruptionType.HARDWARE, failurePolicy(30, 40));
+        policy.put(DisruptionType.SOFTWARE, failurePolicy(10, 20));
+
+        final Map<String, FailurePolicy> modelPolicy = Translator.toResourceModel(policy);
+
+        assertEquals(ALL_DISRUPTION_TYPES, modelPolicy);
+        assertEquals(DisruptionType.knownValues().stream().map(DisruptionType::toString).collect(Collectors.toList()),
+            new ArrayList<>(modelPolicy.keySet()));
+    }
+
+    private static software.amazon.awssdk.services.resiliencehub.model.FailurePolicy failurePolicy(final int rtoInSecs,
+        final int rpoInSecs) {
+        return software.amazon.awssdk.services.resiliencehub.model.FailurePolicy.builder()
+            .rtoInSecs(rtoInSecs)
+            .rpoInSecs(rpoInSecs)
+            .build();
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
+import java.util.Collections;
 
 import com.amazonaws.resiliencehub.common.AbstractTestBase;
 
@@ -15,6 +16,8 @@ import software.amazon.awssdk.services.resiliencehub.model.DescribeResiliencyPol
 import software.amazon.awssdk.services.resiliencehub.model.DescribeResiliencyPolicyResponse;
 import software.amazon.awssdk.services.resiliencehub.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.resiliencehub.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.resiliencehub.model.TagResourceRequest;
+import software.amazon.awssdk.services.resiliencehub.model.TagResourceResponse;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateResiliencyPolicyRequest;
 import software.amazon.awssdk.services.resiliencehub.model.UpdateResiliencyPolicyResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -23,6 +26,11 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,24 +68,100 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(proxyClient.injectCredentialsAndInvokeV2(updateResiliencyPolicyRequest, proxyClient.client()::updateResiliencyPolicy))
             .thenReturn(updateResiliencyPolicyResponse);
 
-        // Read handler invoked in the Create handler at the end.
+        // tags are unchanged, so the model translated from the UpdateResiliencyPolicy response is returned as is
         final ResourceModel outputModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy);
-        final DescribeResiliencyPolicyRequest describeResiliencyPolicyRequest = Translator.translateToReadRequest(outputModel);
-        final DescribeResiliencyPolicyResponse describeResiliencyPolicyResponse = DescribeResiliencyPolicyResponse.builder()
-            .policy(resiliencyPolicy)
-            .build();
         final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
             .resourceArn(outputModel.getPolicyArn())
             .build();
         final ListTagsForResourceResponse listTagsForResourceResponse = ListTagsForResourceResponse.builder()
             .tags(resiliencyPolicy.tags()).build();
 
-        when(proxyClient.injectCredentialsAndInvokeV2(describeResiliencyPolicyRequest, proxyClient.client()::describeResiliencyPolicy))
-            .thenReturn(describeResiliencyPolicyResponse);
         when(proxyClient.injectCredentialsAndInvokeV2(listTagsForResourceRequest, proxyClient.client()::listTagsForResource))
             .thenReturn(listTagsForResourceResponse);
 
         assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
             .isEqualTo(ProgressEvent.defaultSuccessHandler(outputModel));
+        verify(proxyClient.client(), never()).describeResiliencyPolicy(any(DescribeResiliencyPolicyRequest.class));
+    }
+
+    @Test
+    public void handleRequest_TagsChanged_ReadsPolicyAgain() {
+        final ResourceModel inputModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(inputModel)
+            .build();
+
+        final software.amazon.awssdk.services.resiliencehub.model.ResiliencyPolicy resiliencyPolicy =
+            TestDataProvider.getResiliencyPolicy();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToUpdateRequest(inputModel),
+            proxyClient.client()::updateResiliencyPolicy))
+            .thenReturn(UpdateResiliencyPolicyResponse.builder()
+                .policy(resiliencyPolicy.toBuilder().tags(Collections.emptyMap()).build())
+                .build());
+
+        // the policy carries no tags yet, so the desired ones are added and the policy is described again
+        final ResourceModel outputModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy);
+        when(proxyClient.injectCredentialsAndInvokeV2(ListTagsForResourceRequest.builder()
+            .resourceArn(outputModel.getPolicyArn())
+            .build(), proxyClient.client()::listTagsForResource))
+            .thenReturn(ListTagsForResourceResponse.builder().tags(Collections.emptyMap()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(TagResourceRequest.builder()
+            .resourceArn(outputModel.getPolicyArn())
+            .tags(inputModel.getTags())
+            .build(), proxyClient.client()::tagResource))
+            .thenReturn(TagResourceResponse.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToReadRequest(outputModel),
+            proxyClient.client()::describeResiliencyPolicy))
+            .thenReturn(DescribeResiliencyPolicyResponse.builder().policy(resiliencyPolicy).build());
+
+        final CallbackContext context = new CallbackContext();
+        assertThat(handler.handleRequest(proxy, request, context, proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(outputModel));
+        assertTrue(context.isTagsChanged());
+    }
+
+    @Test
+    public void handleRequest_NoChange_SkipsAllServiceCalls() {
+        final ResourceModel inputModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(inputModel)
+            .previousResourceState(TestDataProvider.getResourceModelWithResiliencyPolicyArn())
+            .build();
+
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(inputModel));
+        verifyNoInteractions(sdkClient);
+    }
+
+    @Test
+    public void handleRequest_OnlyTagsChanged_SkipsUpdateResiliencyPolicy() {
+        final ResourceModel inputModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        final ResourceModel previousModel = TestDataProvider.getResourceModelWithResiliencyPolicyArn();
+        previousModel.setTags(null);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(inputModel)
+            .previousResourceState(previousModel)
+            .build();
+
+        final software.amazon.awssdk.services.resiliencehub.model.ResiliencyPolicy resiliencyPolicy =
+            TestDataProvider.getResiliencyPolicy();
+        when(proxyClient.injectCredentialsAndInvokeV2(ListTagsForResourceRequest.builder()
+            .resourceArn(inputModel.getPolicyArn())
+            .build(), proxyClient.client()::listTagsForResource))
+            .thenReturn(ListTagsForResourceResponse.builder().tags(Collections.emptyMap()).build());
+        when(proxyClient.injectCredentialsAndInvokeV2(TagResourceRequest.builder()
+            .resourceArn(inputModel.getPolicyArn())
+            .tags(inputModel.getTags())
+            .build(), proxyClient.client()::tagResource))
+            .thenReturn(TagResourceResponse.builder().build());
+        when(proxyClient.injectCredentialsAndInvokeV2(Translator.translateToReadRequest(inputModel),
+            proxyClient.client()::describeResiliencyPolicy))
+            .thenReturn(DescribeResiliencyPolicyResponse.builder().policy(resiliencyPolicy).build());
+
+        assertThat(handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(
+                TestDataProvider.getResourceModelWithResiliencyPolicyArn(resiliencyPolicy)));
+        verify(proxyClient.client(), never()).updateResiliencyPolicy(any(UpdateResiliencyPolicyRequest.class));
     }
 }
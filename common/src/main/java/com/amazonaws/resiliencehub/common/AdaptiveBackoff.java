@@ -0,0 +1,47 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+
+/**
+ * Picks the callback delay of a polling stage from how long the awaited operation has been running so far.
+ * Operations that finish quickly are noticed after minDelay, while long ones are polled less and less often, so the
+ * number of polls grows with the logarithm of the processing time instead of linearly.
+ */
+@lombok.Builder
+public final class AdaptiveBackoff {
+
+    /**
+     * Delay before the first polls.
+     */
+    @lombok.Builder.Default
+    private final Duration minDelay = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound for the delay, however long the operation has been running.
+     */
+    @lombok.Builder.Default
+    private final Duration maxDelay = Duration.ofSeconds(30);
+
+    /**
+     * Fraction of the processing time observed so far that is waited before the next poll.
+     */
+    @lombok.Builder.Default
+    private final double growth = 0.5;
+
+    /**
+     * @param elapsed time since the operation was first polled
+     * @return delay before the next poll in whole seconds, at least 1 since callback delays are given in seconds
+     */
+    public int nextDelaySeconds(final Duration elapsed) {
+        Validate.notNull(elapsed);
+        Validate.isTrue(!elapsed.isNegative(), "elapsed must not be negative");
+        Validate.isTrue(minDelay.compareTo(maxDelay) <= 0, "minDelay must not exceed maxDelay");
+        Validate.isTrue(growth >= 0, "growth must not be negative");
+
+        final long proportionalMillis = (long) (elapsed.toMillis() * growth);
+        final long delayMillis = Math.max(minDelay.toMillis(), Math.min(maxDelay.toMillis(), proportionalMillis));
+        return (int) Math.max(1, (delayMillis + 999) / 1000);
+    }
+}
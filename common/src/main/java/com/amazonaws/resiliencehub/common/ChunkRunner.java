@@ -0,0 +1,95 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+
+/**
+ * Runs one service call per chunk of a large batch, in order on the calling thread.
+ * Every chunk is retried on its own when the call is throttled or fails with an internal error, so a single failure
+ * never resends chunks that already went through. Service calls are expected to go through
+ * {@link ExceptionHandlerWrapper}, which is what turns throttling and internal errors into the exceptions retried here.
+ */
+@lombok.Builder
+public final class ChunkRunner {
+
+    /**
+     * Attempts per chunk, including the first one.
+     */
+    @lombok.Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * Delay before the first retry of a chunk, doubled on every further retry.
+     */
+    @lombok.Builder.Default
+    private final Duration retryDelay = Duration.ofMillis(200);
+
+    /**
+     * Outcome of a successful chunk.
+     */
+    @lombok.Value
+    public static class ChunkReport {
+        private final int index;
+        private final int attempts;
+        private final long latencyMillis;
+    }
+
+    /**
+     * Runs the call for every chunk.
+     *
+     * @param chunks chunks in submission order
+     * @param call service call for a single chunk
+     * @param <T> chunk type
+     * @return one report per chunk, in chunk order
+     * @throws RuntimeException the failure of the first chunk that did not succeed within maxAttempts. Later chunks are
+     *     not run.
+     */
+    public <T> List<ChunkReport> run(final List<T> chunks, final Consumer<T> call) {
+        Validate.notNull(chunks);
+        Validate.notNull(call);
+        Validate.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+
+        final List<ChunkReport> reports = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            reports.add(runChunk(i, chunks.get(i), call));
+        }
+        return Collections.unmodifiableList(reports);
+    }
+
+    private <T> ChunkReport runChunk(final int index, final T chunk, final Consumer<T> call) {
+        final long start = System.nanoTime();
+        int attempt = 1;
+        while (true) {
+            try {
+                call.accept(chunk);
+                return new ChunkReport(index, attempt, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (final RuntimeException e) {
+                if (!ExceptionHandlerWrapper.isRetryable(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleep(retryDelay.toMillis() << (attempt - 1));
+                attempt++;
+            }
+        }
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+}
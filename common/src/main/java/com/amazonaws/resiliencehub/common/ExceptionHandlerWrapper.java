@@ -60,4 +60,12 @@ public final class ExceptionHandlerWrapper {
         }
     }
 
+    /**
+     * @param exception exception thrown by a wrapped service call
+     * @return whether the call may succeed when it is simply retried later
+     */
+    public static boolean isRetryable(final Throwable exception) {
+        return exception instanceof CfnThrottlingException || exception instanceof CfnInternalFailureException;
+    }
+
 }
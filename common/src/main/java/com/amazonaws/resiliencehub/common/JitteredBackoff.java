@@ -0,0 +1,58 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for polling a resource until it reaches a state. The delay doubles with every poll up
+ * to maxDelay, and a random part of it, up to the jitter fraction, is dropped so that handlers polling in parallel
+ * spread out instead of hitting the service in lockstep.
+ */
+@lombok.Builder
+public final class JitteredBackoff {
+
+    /**
+     * Delay after the first poll, before jitter.
+     */
+    @lombok.Builder.Default
+    private final Duration baseDelay = Duration.ofMillis(500);
+
+    /**
+     * Upper bound for the delay, before jitter.
+     */
+    @lombok.Builder.Default
+    private final Duration maxDelay = Duration.ofSeconds(30);
+
+    /**
+     * Fraction of the delay that is randomized, 0 for no jitter and 1 for a delay anywhere between zero and the full delay.
+     */
+    @lombok.Builder.Default
+    private final double jitter = 0.5;
+
+    /**
+     * @param polls number of polls made so far, at least 1
+     * @return delay before the next poll
+     */
+    public Duration nextDelay(final int polls) {
+        return nextDelay(polls, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param polls number of polls made so far, at least 1
+     * @param random uniformly distributed value in [0, 1)
+     * @return delay before the next poll
+     */
+    public Duration nextDelay(final int polls, final double random) {
+        Validate.isTrue(polls >= 1, "polls must be positive");
+        Validate.isTrue(random >= 0 && random < 1, "random must be in [0, 1)");
+        Validate.isTrue(baseDelay.compareTo(maxDelay) <= 0, "baseDelay must not exceed maxDelay");
+        Validate.isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+
+        // maxDelay is reached long before, larger shifts could overflow
+        final long exponentialMillis = polls > 30 ? Long.MAX_VALUE : baseDelay.toMillis() << (polls - 1);
+        final long cappedMillis = Math.min(maxDelay.toMillis(), exponentialMillis);
+        return Duration.ofMillis(cappedMillis - (long) (cappedMillis * jitter * random));
+    }
+}
@@ -0,0 +1,35 @@
+package com.amazonaws.resiliencehub.common;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Thrown by a {@link StageEngine} stage that ran ahead of a stage it turned out to depend on. The engine runs the stage
+ * again once the named stages completed. A stage is deferred at most once per invocation, a second deferral fails with
+ * the cause.
+ */
+public class StageDeferredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> waitFor;
+
+    public StageDeferredException(final RuntimeException cause, final String... waitFor) {
+        super(cause);
+        this.waitFor = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(waitFor)));
+    }
+
+    /**
+     * @return stages to complete before the deferred stage runs again
+     */
+    public Set<String> getWaitFor() {
+        return waitFor;
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
@@ -0,0 +1,482 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Runs the named stages of a handler and records the completed ones in the callback context, so that a handler
+ * re-invoked after a callback or a retryable failure only runs the stages that are left.
+ * <p>
+ * A stage completes when it returns an event that can continue, that is IN_PROGRESS without callback delay. Any other
+ * event ends the invocation and is returned as is, so the last stage usually returns the SUCCESS event of the read
+ * handler. Stages run in declaration order. With a concurrency above 1, every stage whose dependencies completed runs
+ * in the same wave, so stages sharing a wave must not change the same parts of the model. A stage that started ahead
+ * of a stage it turned out to depend on throws {@link StageDeferredException} and runs again once that stage completed.
+ * <p>
+ * The callback context travels with every progress event. With a context size ceiling, the serialized context is
+ * measured after every wave and before every retry, so stages that keep large call-graph state, such as request
+ * bodies memoized by {@code proxy.initiate}, show up in the logs, or fail the handler when the ceiling is enforced.
+ * <p>
+ * A callback requested after a stage costs a round trip through CloudFormation and a fresh invocation. Given the time
+ * left in the invocation, the engine waits out the callback delay in process instead and continues inline, as long as
+ * enough time is left for the next stages. Completed stages are recorded either way, so a re-invocation after a
+ * timeout still resumes where it stopped.
+ *
+ * @param <ModelT> resource model type
+ * @param <CallbackT> callback context type
+ */
+public final class StageEngine<ModelT, CallbackT extends StagedCallbackContext> {
+
+    /**
+     * Work of a single stage.
+     */
+    @FunctionalInterface
+    public interface StageAction<ModelT, CallbackT> {
+        ProgressEvent<ModelT, CallbackT> run(ModelT model, CallbackT callbackContext);
+    }
+
+    /**
+     * Waits out a callback delay before continuing inline.
+     */
+    @FunctionalInterface
+    public interface Sleeper {
+        Sleeper THREAD = duration -> Thread.sleep(duration.toMillis());
+
+        void sleep(Duration duration) throws InterruptedException;
+    }
+
+    @lombok.Value
+    private static class Stage<ModelT, CallbackT> {
+        private final String name;
+        private final Set<String> dependsOn;
+        private final StageAction<ModelT, CallbackT> action;
+    }
+
+    @lombok.Value
+    private static class Outcome<ModelT, CallbackT> {
+        private final ProgressEvent<ModelT, CallbackT> event;
+        private final RuntimeException failure;
+        private final long latencyMillis;
+    }
+
+    @lombok.Getter
+    private static class StageTimings {
+        private int stages;
+        private long stageMillis;
+
+        void add(final long latencyMillis) {
+            stages++;
+            stageMillis += latencyMillis;
+        }
+    }
+
+    private final List<Stage<ModelT, CallbackT>> stages;
+    private final Map<String, Integer> callbackDelays;
+    private final int concurrency;
+    private final int callbackDelaySeconds;
+    private final int maxRetries;
+    private final int contextMaxBytes;
+    private final boolean contextMaxBytesEnforced;
+    private final Supplier<Duration> remainingTime;
+    private final Duration inlineMinRemaining;
+    private final Sleeper sleeper;
+    private final Logger logger;
+
+    private StageEngine(final Builder<ModelT, CallbackT> builder) {
+        this.stages = Collections.unmodifiableList(new ArrayList<>(builder.stages.values()));
+        this.callbackDelays = Collections.unmodifiableMap(new LinkedHashMap<>(builder.callbackDelays));
+        this.concurrency = builder.concurrency;
+        this.callbackDelaySeconds = builder.callbackDelaySeconds;
+        this.maxRetries = builder.maxRetries;
+        this.contextMaxBytes = builder.contextMaxBytes;
+        this.contextMaxBytesEnforced = builder.contextMaxBytesEnforced;
+        this.remainingTime = builder.remainingTime;
+        this.inlineMinRemaining = builder.inlineMinRemaining;
+        this.sleeper = builder.sleeper;
+        this.logger = builder.logger;
+    }
+
+    public static <ModelT, CallbackT extends StagedCallbackContext> Builder<ModelT, CallbackT> builder(final Logger logger) {
+        return new Builder<>(logger);
+    }
+
+    /**
+     * Runs the stages that did not complete yet.
+     *
+     * @param model resource model
+     * @param callbackContext callback context holding the completed stages
+     * @return the first event that cannot continue, IN_PROGRESS with a callback delay after a retryable failure, or
+     *     a progress event once every stage completed
+     * @throws RuntimeException the first failure, in declaration order, that is not retryable or exceeded maxRetries
+     */
+    public ProgressEvent<ModelT, CallbackT> run(final ModelT model, final CallbackT callbackContext) {
+        Validate.notNull(callbackContext);
+
+        final StageTimings timings = new StageTimings();
+        final long start = System.nanoTime();
+        try {
+            return runWaves(model, callbackContext, timings);
+        } finally {
+            if (timings.getStages() > 0) {
+                // the sum of the stage latencies is what the invocation would have taken without parallel waves
+                logger.log(String.format("Ran %d stage(s) in %d ms, %d ms when run one after another.", timings.getStages(),
+                    elapsedMillis(start), timings.getStageMillis()));
+            }
+        }
+    }
+
+    private ProgressEvent<ModelT, CallbackT> runWaves(final ModelT model, final CallbackT callbackContext,
+        final StageTimings timings) {
+        final Set<String> completedStages = callbackContext.getCompletedStages();
+        // stages deferred with StageDeferredException in this invocation, with the stages they wait for
+        final Map<String, Set<String>> deferrals = new LinkedHashMap<>();
+        ModelT currentModel = model;
+        while (true) {
+            final List<Stage<ModelT, CallbackT>> wave = nextWave(completedStages, deferrals);
+            if (wave.isEmpty()) {
+                // only a deferral can leave stages behind that never become ready
+                Validate.validState(stages.stream().allMatch(stage -> completedStages.contains(stage.getName())),
+                    "stages deferred in a cycle: %s", deferrals);
+                return ProgressEvent.progress(currentModel, callbackContext);
+            }
+
+            final List<Outcome<ModelT, CallbackT>> outcomes = execute(wave, currentModel, callbackContext);
+            for (final Outcome<ModelT, CallbackT> outcome : outcomes) {
+                timings.add(outcome.getLatencyMillis());
+            }
+            Integer callbackDelay = null;
+            final List<String> waveCompleted = new ArrayList<>(wave.size());
+            for (int i = 0; i < wave.size(); i++) {
+                final Stage<ModelT, CallbackT> stage = wave.get(i);
+                final Outcome<ModelT, CallbackT> outcome = outcomes.get(i);
+                if (outcome.getEvent() != null && outcome.getEvent().canContinueProgress()) {
+                    completedStages.add(stage.getName());
+                    waveCompleted.add(stage.getName());
+                    currentModel = outcome.getEvent().getResourceModel();
+                    logger.log(String.format("Stage %s completed in %d ms.", stage.getName(), outcome.getLatencyMillis()));
+                    if (callbackDelays.containsKey(stage.getName())) {
+                        callbackDelay = callbackDelays.get(stage.getName());
+                    }
+                }
+            }
+            if (!waveCompleted.isEmpty()) {
+                checkContextSize(waveCompleted, callbackContext);
+            }
+            for (int i = 0; i < wave.size(); i++) {
+                final Outcome<ModelT, CallbackT> outcome = outcomes.get(i);
+                if (outcome.getFailure() instanceof StageDeferredException) {
+                    defer(wave.get(i), (StageDeferredException) outcome.getFailure(), deferrals);
+                } else if (outcome.getFailure() != null) {
+                    return retryOrThrow(wave.get(i).getName(), outcome.getFailure(), currentModel, callbackContext);
+                } else if (!outcome.getEvent().canContinueProgress()) {
+                    logger.log(String.format("Stage %s returned %s after %d ms.", wave.get(i).getName(),
+                        outcome.getEvent().getStatus(), outcome.getLatencyMillis()));
+                    return outcome.getEvent();
+                }
+            }
+            callbackContext.setStageRetries(0);
+            if (callbackDelay != null && !nextWave(completedStages, deferrals).isEmpty() && !continueInline(callbackDelay)) {
+                return ProgressEvent.defaultInProgressHandler(callbackContext, callbackDelay, currentModel);
+            }
+        }
+    }
+
+    private boolean continueInline(final int callbackDelaySeconds) {
+        if (remainingTime == null) {
+            return false;
+        }
+        final Duration delay = Duration.ofSeconds(callbackDelaySeconds);
+        final Duration remaining = remainingTime.get();
+        if (remaining.minus(delay).compareTo(inlineMinRemaining) < 0) {
+            logger.log(String.format("%d ms of the invocation left, continuing after callback.", remaining.toMillis()));
+            return false;
+        }
+        logger.log(String.format("%d ms of the invocation left, continuing inline after %d s.", remaining.toMillis(),
+            callbackDelaySeconds));
+        try {
+            sleeper.sleep(delay);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+        return true;
+    }
+
+    private void checkContextSize(final List<String> stageNames, final CallbackT callbackContext) {
+        if (contextMaxBytes <= 0) {
+            return;
+        }
+        final int size = serializedSize(callbackContext);
+        if (size <= contextMaxBytes) {
+            logger.log(String.format("Callback context holds %d bytes after stage(s) %s.", size, stageNames));
+            return;
+        }
+        final String message = String.format("Callback context holds %d bytes after stage(s) %s, more than the ceiling of %d bytes.",
+            size, stageNames, contextMaxBytes);
+        if (contextMaxBytesEnforced) {
+            throw new IllegalStateException(message);
+        }
+        logger.log(message);
+    }
+
+    /**
+     * @param budget time allowed from now on
+     * @return time left of the budget whenever it is read, negative once the budget is exceeded
+     */
+    public static Supplier<Duration> remainingOf(final Duration budget) {
+        final long deadlineNanos = System.nanoTime() + Validate.notNull(budget).toNanos();
+        return () -> Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * @param callbackContext callback context
+     * @return size of the callback context as it is serialized into progress events, in UTF-8 bytes
+     */
+    public static int serializedSize(final Object callbackContext) {
+        try {
+            return new Serializer().serialize(callbackContext).getBytes(StandardCharsets.UTF_8).length;
+        } catch (final JsonProcessingException e) {
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private void defer(final Stage<ModelT, CallbackT> stage, final StageDeferredException deferral,
+        final Map<String, Set<String>> deferrals) {
+        final Set<String> waitFor = deferral.getWaitFor();
+        if (deferrals.containsKey(stage.getName()) || waitFor.isEmpty()) {
+            throw deferral.getCause();
+        }
+        for (final String dependency : waitFor) {
+            Validate.isTrue(stages.stream().anyMatch(declared -> declared.getName().equals(dependency)),
+                "stage %s waits for undeclared stage %s", stage.getName(), dependency);
+        }
+        deferrals.put(stage.getName(), waitFor);
+        logger.log(String.format("Stage %s deferred until %s completed: %s", stage.getName(), waitFor,
+            deferral.getCause().getMessage()));
+    }
+
+    private List<Stage<ModelT, CallbackT>> nextWave(final Set<String> completedStages, final Map<String, Set<String>> deferrals) {
+        final List<Stage<ModelT, CallbackT>> wave = new ArrayList<>();
+        for (final Stage<ModelT, CallbackT> stage : stages) {
+            if (!completedStages.contains(stage.getName()) && completedStages.containsAll(stage.getDependsOn())
+                && completedStages.containsAll(deferrals.getOrDefault(stage.getName(), Collections.emptySet()))) {
+                wave.add(stage);
+                if (concurrency == 1) {
+                    break;
+                }
+            }
+        }
+        return wave;
+    }
+
+    private List<Outcome<ModelT, CallbackT>> execute(final List<Stage<ModelT, CallbackT>> wave, final ModelT model,
+        final CallbackT callbackContext) {
+        if (wave.size() == 1) {
+            return Collections.singletonList(runStage(wave.get(0), model, callbackContext));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, wave.size()));
+        try {
+            final List<Future<Outcome<ModelT, CallbackT>>> futures = new ArrayList<>(wave.size());
+            for (final Stage<ModelT, CallbackT> stage : wave) {
+                futures.add(executor.submit(() -> runStage(stage, model, callbackContext)));
+            }
+            final List<Outcome<ModelT, CallbackT>> outcomes = new ArrayList<>(wave.size());
+            for (final Future<Outcome<ModelT, CallbackT>> future : futures) {
+                outcomes.add(await(future));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Outcome<ModelT, CallbackT> runStage(final Stage<ModelT, CallbackT> stage, final ModelT model,
+        final CallbackT callbackContext) {
+        final long start = System.nanoTime();
+        try {
+            final ProgressEvent<ModelT, CallbackT> event = stage.getAction().run(model, callbackContext);
+            Validate.notNull(event, "stage %s returned no event", stage.getName());
+            return new Outcome<>(event, null, elapsedMillis(start));
+        } catch (final RuntimeException e) {
+            return new Outcome<>(null, e, elapsedMillis(start));
+        }
+    }
+
+    private ProgressEvent<ModelT, CallbackT> retryOrThrow(final String stageName, final RuntimeException failure,
+        final ModelT model, final CallbackT callbackContext) {
+        if (!ExceptionHandlerWrapper.isRetryable(failure) || callbackContext.getStageRetries() >= maxRetries) {
+            throw failure;
+        }
+        callbackContext.setStageRetries(callbackContext.getStageRetries() + 1);
+        logger.log(String.format("Stage %s failed, retrying the remaining stages after callback (%d/%d): %s", stageName,
+            callbackContext.getStageRetries(), maxRetries, failure.getMessage()));
+        // the failed stage may have left progress in the context, such as a cursor to resume from
+        checkContextSize(Collections.singletonList(stageName), callbackContext);
+        return ProgressEvent.defaultInProgressHandler(callbackContext, callbackDelaySeconds, model);
+    }
+
+    private static <ModelT, CallbackT> Outcome<ModelT, CallbackT> await(final Future<Outcome<ModelT, CallbackT>> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new CfnInternalFailureException(e.getCause());
+        }
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public static final class Builder<ModelT, CallbackT extends StagedCallbackContext> {
+
+        private final Map<String, Stage<ModelT, CallbackT>> stages = new LinkedHashMap<>();
+        private final Map<String, Integer> callbackDelays = new LinkedHashMap<>();
+        private final Logger logger;
+        private int concurrency = 1;
+        private int callbackDelaySeconds = 1;
+        private int maxRetries = 3;
+        private int contextMaxBytes;
+        private boolean contextMaxBytesEnforced;
+        private Supplier<Duration> remainingTime;
+        private Duration inlineMinRemaining = Duration.ZERO;
+        private Sleeper sleeper = Sleeper.THREAD;
+
+        private Builder(final Logger logger) {
+            this.logger = Validate.notNull(logger);
+        }
+
+        /**
+         * Declares a stage. Dependencies must be declared before the stage, which keeps the stages free of cycles.
+         *
+         * @param name stage name, recorded in the callback context once the stage completed
+         * @param action work of the stage
+         * @param dependsOn stages that must complete before this one starts
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> stage(final String name, final StageAction<ModelT, CallbackT> action,
+            final String... dependsOn) {
+            Validate.notBlank(name);
+            Validate.notNull(action);
+            Validate.isTrue(!stages.containsKey(name), "stage %s is declared twice", name);
+            for (final String dependency : dependsOn) {
+                Validate.isTrue(stages.containsKey(dependency), "stage %s depends on undeclared stage %s", name, dependency);
+            }
+            stages.put(name, new Stage<>(name, Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(dependsOn))),
+                action));
+            return this;
+        }
+
+        /**
+         * Ends the invocation with a callback after the stage completed, unless no stage is left.
+         *
+         * @param name stage name
+         * @param delaySeconds callback delay
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> callbackAfter(final String name, final int delaySeconds) {
+            Validate.isTrue(stages.containsKey(name), "undeclared stage %s", name);
+            Validate.isTrue(delaySeconds > 0, "delaySeconds must be positive");
+            callbackDelays.put(name, delaySeconds);
+            return this;
+        }
+
+        /**
+         * @param concurrency maximum number of stages in flight. With 1 all stages run in order on the calling thread.
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> concurrency(final int concurrency) {
+            Validate.isTrue(concurrency > 0, "concurrency must be positive");
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param callbackDelaySeconds callback delay after a retryable failure
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> callbackDelaySeconds(final int callbackDelaySeconds) {
+            Validate.isTrue(callbackDelaySeconds >= 0, "callbackDelaySeconds must not be negative");
+            this.callbackDelaySeconds = callbackDelaySeconds;
+            return this;
+        }
+
+        /**
+         * @param maxRetries consecutive invocations that may end with a retryable failure before it is rethrown
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> maxRetries(final int maxRetries) {
+            Validate.isTrue(maxRetries >= 0, "maxRetries must not be negative");
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * @param maxBytes ceiling for the serialized callback context, 0 skips measuring it
+         * @param enforced whether exceeding the ceiling fails the handler rather than only being logged
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> contextMaxBytes(final int maxBytes, final boolean enforced) {
+            Validate.isTrue(maxBytes >= 0, "maxBytes must not be negative");
+            this.contextMaxBytes = maxBytes;
+            this.contextMaxBytesEnforced = enforced;
+            return this;
+        }
+
+        /**
+         * Continues inline instead of requesting the callbacks declared with {@link #callbackAfter(String, int)}.
+         *
+         * @param remainingTime time left in the invocation, read whenever a callback is due
+         * @param minRemaining time that must be left after the callback delay to continue inline
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> inlineContinuation(final Supplier<Duration> remainingTime, final Duration minRemaining) {
+            Validate.isTrue(!Validate.notNull(minRemaining).isNegative(), "minRemaining must not be negative");
+            this.remainingTime = Validate.notNull(remainingTime);
+            this.inlineMinRemaining = minRemaining;
+            return this;
+        }
+
+        /**
+         * @param sleeper waits out the callback delay before continuing inline
+         * @return this builder
+         */
+        public Builder<ModelT, CallbackT> sleeper(final Sleeper sleeper) {
+            this.sleeper = Validate.notNull(sleeper);
+            return this;
+        }
+
+        public StageEngine<ModelT, CallbackT> build() {
+            return new StageEngine<>(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.amazonaws.resiliencehub.common;
+
+import java.util.Set;
+
+/**
+ * Callback context state used by {@link StageEngine} to resume a handler across invocations.
+ */
+public interface StagedCallbackContext {
+
+    /**
+     * @return mutable set with the names of the stages that completed in earlier invocations
+     */
+    Set<String> getCompletedStages();
+
+    /**
+     * @return number of consecutive invocations that ended with a retryable failure
+     */
+    int getStageRetries();
+
+    void setStageRetries(int stageRetries);
+}
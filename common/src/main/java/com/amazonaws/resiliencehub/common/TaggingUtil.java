@@ -33,7 +33,12 @@ public class TaggingUtil {
             () -> proxyClient.injectCredentialsAndInvokeV2(request, proxyClient.client()::listTagsForResource));
     }
 
-    public static void updateTags(
+    /**
+     * Brings the tags of a resource in line with the desired tags.
+     *
+     * @return true if tags were added or removed, false if the resource already carried the desired tags
+     */
+    public static boolean updateTags(
         final String resourceArn,
         final Map<String, String> tags,
         final ProxyClient<ResiliencehubClient> proxyClient) {
@@ -50,6 +55,7 @@ public class TaggingUtil {
 
         removeTags(resourceArn, tagsToRemove.keySet(), proxyClient);
         addTags(resourceArn, tagsToAdd, proxyClient);
+        return !tagsToRemove.isEmpty() || !tagsToAdd.isEmpty();
     }
 
     private static void addTags(
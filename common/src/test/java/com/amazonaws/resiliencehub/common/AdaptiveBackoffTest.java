@@ -0,0 +1,47 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveBackoffTest {
+
+    @Test
+    public void testNextDelaySeconds() {
+        final AdaptiveBackoff backoff = AdaptiveBackoff.builder()
+            .minDelay(Duration.ofSeconds(2))
+            .maxDelay(Duration.ofSeconds(20))
+            .growth(0.5)
+            .build();
+
+        assertEquals(2, backoff.nextDelaySeconds(Duration.ZERO));
+        assertEquals(2, backoff.nextDelaySeconds(Duration.ofSeconds(3)));
+        assertEquals(5, backoff.nextDelaySeconds(Duration.ofSeconds(10)));
+        // partial seconds round up
+        assertEquals(6, backoff.nextDelaySeconds(Duration.ofMillis(10_500)));
+        assertEquals(20, backoff.nextDelaySeconds(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    public void testNextDelaySeconds_atLeastOneSecond() {
+        final AdaptiveBackoff backoff = AdaptiveBackoff.builder()
+            .minDelay(Duration.ZERO)
+            .build();
+
+        assertEquals(1, backoff.nextDelaySeconds(Duration.ZERO));
+    }
+
+    @Test
+    public void testNextDelaySeconds_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveBackoff.builder().build()
+            .nextDelaySeconds(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveBackoff.builder()
+            .minDelay(Duration.ofSeconds(10))
+            .maxDelay(Duration.ofSeconds(1))
+            .build()
+            .nextDelaySeconds(Duration.ZERO));
+    }
+}
@@ -0,0 +1,109 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChunkRunnerTest {
+
+    private static final String OPERATION = "Operation";
+    private static final List<String> CHUNKS = ImmutableList.of("chunk0", "chunk1", "chunk2", "chunk3");
+
+    @Test
+    public void testRun_sequential() {
+        final List<String> calls = new ArrayList<>();
+
+        final List<ChunkRunner.ChunkReport> reports = ChunkRunner.builder().build().run(CHUNKS, calls::add);
+
+        assertEquals(CHUNKS, calls);
+        assertEquals(CHUNKS.size(), reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            assertEquals(i, reports.get(i).getIndex());
+            assertEquals(1, reports.get(i).getAttempts());
+        }
+    }
+
+    @Test
+    public void testRun_retriesFailedChunkOnly() {
+        final Map<String, AtomicInteger> attempts = new HashMap<>();
+
+        final List<ChunkRunner.ChunkReport> reports = ChunkRunner.builder()
+            .retryDelay(Duration.ZERO)
+            .build()
+            .run(CHUNKS, chunk -> {
+                final int attempt = attempts.computeIfAbsent(chunk, key -> new AtomicInteger()).incrementAndGet();
+                if ("chunk1".equals(chunk) && attempt == 1) {
+                    throw new CfnThrottlingException(OPERATION);
+                }
+                if ("chunk2".equals(chunk) && attempt < 3) {
+                    throw new CfnInternalFailureException();
+                }
+            });
+
+        assertEquals(1, attempts.get("chunk0").get());
+        assertEquals(2, attempts.get("chunk1").get());
+        assertEquals(3, attempts.get("chunk2").get());
+        assertEquals(1, attempts.get("chunk3").get());
+        assertEquals(2, reports.get(1).getAttempts());
+        assertEquals(3, reports.get(2).getAttempts());
+    }
+
+    @Test
+    public void testRun_givesUpAfterMaxAttempts() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CfnThrottlingException.class, () -> ChunkRunner.builder()
+            .maxAttempts(2)
+            .retryDelay(Duration.ofMillis(1))
+            .build()
+            .run(CHUNKS, chunk -> {
+                attempts.incrementAndGet();
+                throw new CfnThrottlingException(OPERATION);
+            }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testRun_doesNotRetryInvalidRequest() {
+        final List<String> calls = new ArrayList<>();
+
+        assertThrows(CfnInvalidRequestException.class, () -> ChunkRunner.builder()
+            .build()
+            .run(CHUNKS, chunk -> {
+                calls.add(chunk);
+                if ("chunk1".equals(chunk)) {
+                    throw new CfnInvalidRequestException(OPERATION);
+                }
+            }));
+        // the failed chunk is not retried and the chunks after it are not run
+        assertEquals(CHUNKS.subList(0, 2), calls);
+    }
+
+    @Test
+    public void testRun_rethrowsErrors() {
+        assertThrows(AssertionError.class, () -> ChunkRunner.builder()
+            .build()
+            .run(CHUNKS, chunk -> {
+                throw new AssertionError(chunk);
+            }));
+    }
+
+    @Test
+    public void testRun_invalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> ChunkRunner.builder().maxAttempts(0).build().run(CHUNKS, chunk -> { }));
+    }
+}
@@ -21,7 +21,9 @@ import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
 import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExceptionHandlerWrapperTest {
 
@@ -111,4 +113,12 @@ public class ExceptionHandlerWrapperTest {
             ExceptionHandlerWrapper.wrapResilienceHubExceptions(OPERATION, serviceCall));
     }
 
+    @Test
+    public void testIsRetryable() {
+        assertTrue(ExceptionHandlerWrapper.isRetryable(new CfnThrottlingException(OPERATION)));
+        assertTrue(ExceptionHandlerWrapper.isRetryable(new CfnInternalFailureException()));
+        assertFalse(ExceptionHandlerWrapper.isRetryable(new CfnInvalidRequestException(OPERATION)));
+        assertFalse(ExceptionHandlerWrapper.isRetryable(new IllegalStateException()));
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JitteredBackoffTest {
+
+    @Test
+    public void testNextDelay_withoutJitter() {
+        final JitteredBackoff backoff = JitteredBackoff.builder()
+            .baseDelay(Duration.ofSeconds(1))
+            .maxDelay(Duration.ofSeconds(10))
+            .jitter(0)
+            .build();
+
+        assertEquals(Duration.ofSeconds(1), backoff.nextDelay(1, 0.9));
+        assertEquals(Duration.ofSeconds(2), backoff.nextDelay(2, 0.9));
+        assertEquals(Duration.ofSeconds(8), backoff.nextDelay(4, 0.9));
+        assertEquals(Duration.ofSeconds(10), backoff.nextDelay(5, 0.9));
+        assertEquals(Duration.ofSeconds(10), backoff.nextDelay(1_000, 0.9));
+    }
+
+    @Test
+    public void testNextDelay_withJitter() {
+        final JitteredBackoff backoff = JitteredBackoff.builder()
+            .baseDelay(Duration.ofSeconds(1))
+            .maxDelay(Duration.ofSeconds(10))
+            .jitter(0.5)
+            .build();
+
+        assertEquals(Duration.ofSeconds(4), backoff.nextDelay(3, 0));
+        assertEquals(Duration.ofSeconds(3), backoff.nextDelay(3, 0.5));
+        for (int i = 0; i < 100; i++) {
+            final Duration delay = backoff.nextDelay(3);
+            assertTrue(delay.compareTo(Duration.ofSeconds(2)) > 0 && delay.compareTo(Duration.ofSeconds(4)) <= 0);
+        }
+    }
+
+    @Test
+    public void testNextDelay_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> JitteredBackoff.builder().build().nextDelay(0));
+        assertThrows(IllegalArgumentException.class, () -> JitteredBackoff.builder().build().nextDelay(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> JitteredBackoff.builder()
+            .jitter(2)
+            .build()
+            .nextDelay(1));
+    }
+}
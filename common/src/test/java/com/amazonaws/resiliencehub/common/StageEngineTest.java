@@ -0,0 +1,362 @@
+package com.amazonaws.resiliencehub.common;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class StageEngineTest extends AbstractTestBase {
+
+    private static final String MODEL = "model";
+
+    @lombok.Data
+    static class TestCallbackContext implements StagedCallbackContext {
+        private final Set<String> completedStages = new LinkedHashSet<>();
+        private int stageRetries;
+        private String payload;
+    }
+
+    @Test
+    public void testRun_sequential() {
+        final List<String> calls = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext), "first")
+            .stage("third", (model, callbackContext) -> record(calls, "third", model, callbackContext))
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.progress(MODEL, context), event);
+        assertEquals(ImmutableList.of("first", "second", "third"), calls);
+        assertEquals(ImmutableSet.of("first", "second", "third"), context.getCompletedStages());
+    }
+
+    @Test
+    public void testRun_skipsCompletedStages() {
+        final List<String> calls = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+        context.getCompletedStages().add("first");
+
+        StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext), "first")
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ImmutableList.of("second"), calls);
+    }
+
+    @Test
+    public void testRun_returnsFinalEvent() {
+        final List<String> calls = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> ProgressEvent.defaultSuccessHandler("read"))
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext))
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.defaultSuccessHandler("read"), event);
+        assertTrue(calls.isEmpty());
+        assertTrue(context.getCompletedStages().isEmpty());
+    }
+
+    @Test
+    public void testRun_callbackAfterStage() {
+        final List<String> calls = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+        final StageEngine<String, TestCallbackContext> engine = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model + "Updated", callbackContext))
+            .callbackAfter("first", 5)
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext), "first")
+            .build();
+
+        assertEquals(ProgressEvent.defaultInProgressHandler(context, 5, MODEL + "Updated"), engine.run(MODEL, context));
+        assertEquals(ImmutableList.of("first"), calls);
+
+        assertEquals(ProgressEvent.progress(MODEL + "Updated", context), engine.run(MODEL + "Updated", context));
+        assertEquals(ImmutableList.of("first", "second"), calls);
+    }
+
+    @Test
+    public void testRun_continuesInlineWithinTimeBudget() {
+        final List<String> calls = new ArrayList<>();
+        final List<Duration> sleeps = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .callbackAfter("first", 1)
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext), "first")
+            .inlineContinuation(() -> Duration.ofSeconds(60), Duration.ofSeconds(30))
+            .sleeper(sleeps::add)
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.progress(MODEL, context), event);
+        assertEquals(ImmutableList.of("first", "second"), calls);
+        assertEquals(ImmutableList.of(Duration.ofSeconds(1)), sleeps);
+    }
+
+    @Test
+    public void testRun_callbackWhenTimeBudgetIsShort() {
+        final List<String> calls = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .callbackAfter("first", 1)
+            .stage("second", (model, callbackContext) -> record(calls, "second", model, callbackContext), "first")
+            .inlineContinuation(() -> Duration.ofSeconds(20), Duration.ofSeconds(30))
+            .sleeper(duration -> fail("slept " + duration))
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.defaultInProgressHandler(context, 1, MODEL), event);
+        assertEquals(ImmutableList.of("first"), calls);
+    }
+
+    @Test
+    public void testRun_remainingTimeReadWhenCallbackIsDue() {
+        final List<String> calls = new ArrayList<>();
+        final List<Duration> sleeps = new ArrayList<>();
+        final TestCallbackContext context = new TestCallbackContext();
+        // the first stage uses up most of the invocation, so the second callback is no longer waited out inline
+        final AtomicInteger remainingSeconds = new AtomicInteger(60);
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .callbackAfter("first", 1)
+            .stage("second", (model, callbackContext) -> {
+                remainingSeconds.set(20);
+                return record(calls, "second", model, callbackContext);
+            }, "first")
+            .callbackAfter("second", 1)
+            .stage("third", (model, callbackContext) -> record(calls, "third", model, callbackContext), "second")
+            .inlineContinuation(() -> Duration.ofSeconds(remainingSeconds.get()), Duration.ofSeconds(30))
+            .sleeper(sleeps::add)
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.defaultInProgressHandler(context, 1, MODEL), event);
+        assertEquals(ImmutableList.of("first", "second"), calls);
+        assertEquals(ImmutableList.of(Duration.ofSeconds(1)), sleeps);
+    }
+
+    @Test
+    public void testRemainingOf() {
+        assertTrue(StageEngine.remainingOf(Duration.ofSeconds(60)).get().compareTo(Duration.ofSeconds(59)) > 0);
+        assertTrue(StageEngine.remainingOf(Duration.ZERO).get().compareTo(Duration.ZERO) <= 0);
+    }
+
+    @Test
+    public void testRun_retryableFailure() {
+        final List<String> calls = new ArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final TestCallbackContext context = new TestCallbackContext();
+        final StageEngine<String, TestCallbackContext> engine = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .stage("second", (model, callbackContext) -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new CfnThrottlingException("second");
+                }
+                return record(calls, "second", model, callbackContext);
+            }, "first")
+            .callbackDelaySeconds(3)
+            .build();
+
+        final ProgressEvent<String, TestCallbackContext> event = engine.run(MODEL, context);
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertEquals(3, event.getCallbackDelaySeconds());
+        assertEquals(1, context.getStageRetries());
+        assertEquals(ImmutableSet.of("first"), context.getCompletedStages());
+
+        assertEquals(ProgressEvent.progress(MODEL, context), engine.run(MODEL, context));
+        assertEquals(ImmutableList.of("first", "second"), calls);
+        assertEquals(0, context.getStageRetries());
+    }
+
+    @Test
+    public void testRun_rethrowsAfterMaxRetries() {
+        final TestCallbackContext context = new TestCallbackContext();
+        context.setStageRetries(2);
+
+        assertThrows(CfnThrottlingException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> {
+                throw new CfnThrottlingException("first");
+            })
+            .maxRetries(2)
+            .build()
+            .run(MODEL, context));
+    }
+
+    @Test
+    public void testRun_rethrowsNonRetryableFailure() {
+        assertThrows(CfnInvalidRequestException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> {
+                throw new CfnInvalidRequestException("first");
+            })
+            .build()
+            .run(MODEL, new TestCallbackContext()));
+    }
+
+    @Test
+    public void testRun_parallelWave() {
+        // both independent stages wait for each other, which only completes if they run at the same time
+        final CountDownLatch bothInFlight = new CountDownLatch(2);
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final TestCallbackContext context = new TestCallbackContext();
+        final StageEngine.StageAction<String, TestCallbackContext> awaitOther = (model, callbackContext) -> {
+            bothInFlight.countDown();
+            try {
+                assertTrue(bothInFlight.await(10, TimeUnit.SECONDS));
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return ProgressEvent.progress(model, callbackContext);
+        };
+
+        StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("left", awaitOther)
+            .stage("right", awaitOther)
+            .stage("join", (model, callbackContext) -> record(calls, "join", model, callbackContext), "left", "right")
+            .concurrency(2)
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ImmutableList.of("join"), calls);
+        assertEquals(ImmutableSet.of("left", "right", "join"), context.getCompletedStages());
+    }
+
+    @Test
+    public void testRun_parallelWaveKeepsSuccessfulStages() {
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("left", ProgressEvent::progress)
+            .stage("right", (model, callbackContext) -> {
+                throw new CfnThrottlingException("right");
+            })
+            .concurrency(2)
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(OperationStatus.IN_PROGRESS, event.getStatus());
+        assertEquals(ImmutableSet.of("left"), context.getCompletedStages());
+    }
+
+    @Test
+    public void testRun_deferredStageRerunsAfterDependency() {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger attempts = new AtomicInteger();
+        final TestCallbackContext context = new TestCallbackContext();
+
+        final ProgressEvent<String, TestCallbackContext> event = StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> record(calls, "first", model, callbackContext))
+            .stage("second", (model, callbackContext) -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new StageDeferredException(new CfnInvalidRequestException("second"), "first");
+                }
+                return record(calls, "second", model, callbackContext);
+            })
+            .concurrency(2)
+            .build()
+            .run(MODEL, context);
+
+        assertEquals(ProgressEvent.progress(MODEL, context), event);
+        assertEquals(2, attempts.get());
+        assertEquals(ImmutableList.of("first", "second"), calls);
+        assertEquals(ImmutableSet.of("first", "second"), context.getCompletedStages());
+    }
+
+    @Test
+    public void testRun_secondDeferralRethrowsCause() {
+        assertThrows(CfnInvalidRequestException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", ProgressEvent::progress)
+            .stage("second", (model, callbackContext) -> {
+                throw new StageDeferredException(new CfnInvalidRequestException("second"), "first");
+            })
+            .concurrency(2)
+            .build()
+            .run(MODEL, new TestCallbackContext()));
+        assertThrows(CfnInvalidRequestException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", (model, callbackContext) -> {
+                throw new StageDeferredException(new CfnInvalidRequestException("first"));
+            })
+            .build()
+            .run(MODEL, new TestCallbackContext()));
+    }
+
+    @Test
+    public void testRun_contextSizeCeiling() {
+        final StageEngine.StageAction<String, TestCallbackContext> bloat = (model, callbackContext) -> {
+            callbackContext.setPayload(StringUtils.repeat('x', 2048));
+            return ProgressEvent.progress(model, callbackContext);
+        };
+        final TestCallbackContext context = new TestCallbackContext();
+        final int emptySize = StageEngine.serializedSize(context);
+
+        StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("bloat", bloat)
+            .contextMaxBytes(1024, false)
+            .build()
+            .run(MODEL, context);
+        assertTrue(StageEngine.serializedSize(context) > emptySize + 2048);
+
+        assertThrows(IllegalStateException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("bloat", bloat)
+            .contextMaxBytes(1024, true)
+            .build()
+            .run(MODEL, new TestCallbackContext()));
+        // a stage that fails after growing the context is measured too, before its retry is requested
+        assertThrows(IllegalStateException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("bloat", (model, callbackContext) -> {
+                bloat.run(model, callbackContext);
+                throw new CfnThrottlingException("bloat");
+            })
+            .contextMaxBytes(1024, true)
+            .build()
+            .run(MODEL, new TestCallbackContext()));
+    }
+
+    @Test
+    public void testBuilder_invalidStages() {
+        assertThrows(IllegalArgumentException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", ProgressEvent::progress, "second"));
+        assertThrows(IllegalArgumentException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .stage("first", ProgressEvent::progress)
+            .stage("first", ProgressEvent::progress));
+        assertThrows(IllegalArgumentException.class, () -> StageEngine.<String, TestCallbackContext>builder(logger)
+            .callbackAfter("first", 1));
+    }
+
+    private static ProgressEvent<String, TestCallbackContext> record(final List<String> calls, final String stage,
+        final String model, final TestCallbackContext callbackContext) {
+        calls.add(stage);
+        return ProgressEvent.progress(model, callbackContext);
+    }
+}
@@ -19,6 +19,8 @@ import software.amazon.awssdk.services.resiliencehub.model.UntagResourceRequest;
 import software.amazon.cloudformation.proxy.ProxyClient;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
@@ -77,7 +79,7 @@ public class TaggingUtilTest {
             .build();
         doReturn(listTagsForResourceResponse).when(proxyClient).injectCredentialsAndInvokeV2(eq(listTagsForResourceRequest), any());
 
-        taggingUtil.updateTags(RESOURCE_ARN, desiredTags, proxyClient);
+        assertTrue(taggingUtil.updateTags(RESOURCE_ARN, desiredTags, proxyClient));
 
         final TagResourceRequest expectedTagResourceRequest = TagResourceRequest.builder()
             .resourceArn(RESOURCE_ARN)
@@ -103,9 +105,8 @@ public class TaggingUtilTest {
             .build();
         doReturn(listTagsForResourceResponse).when(proxyClient).injectCredentialsAndInvokeV2(eq(listTagsForResourceRequest), any());
 
-        taggingUtil.updateTags(RESOURCE_ARN, desiredTags, proxyClient);
+        assertFalse(taggingUtil.updateTags(RESOURCE_ARN, desiredTags, proxyClient));
 
         verifyNoMoreInteractions(proxyClient);
     }
-
 }